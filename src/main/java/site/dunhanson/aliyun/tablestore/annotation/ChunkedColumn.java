@@ -0,0 +1,31 @@
+package site.dunhanson.aliyun.tablestore.annotation;
+
+import site.dunhanson.aliyun.tablestore.codec.Chunking;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 超长时分块存储的列（数据拆到同一行的 列名__part1..N 列，读取时自动拼接），也可以在 tableStore.yaml 的 chunkColumn 中声明
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ChunkedColumn {
+
+    /**
+     * 每块的字节数（ots 单列最大 2MB）
+     * @return
+     */
+    int chunkSize() default Chunking.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * 最多的块数
+     * @return
+     */
+    int maxParts() default Chunking.DEFAULT_MAX_PARTS;
+
+}
@@ -0,0 +1,25 @@
+package site.dunhanson.aliyun.tablestore.annotation;
+
+import site.dunhanson.aliyun.tablestore.codec.Compression;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 压缩存储的列（以带头的二进制存储，读取时自动解压，兼容未压缩的旧数据），也可以在 tableStore.yaml 的 compressColumn 中声明
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CompressedColumn {
+
+    /**
+     * 压缩算法
+     * @return
+     */
+    Compression value() default Compression.DEFLATE;
+
+}
@@ -0,0 +1,29 @@
+package site.dunhanson.aliyun.tablestore.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 嵌套列（以 json 字符串存储，属性名按下划线入库），也可以在 tableStore.yaml 的 nestedColumn 中声明
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NestedColumn {
+
+    /**
+     * 集合的元素类型（默认取字段的泛型参数）
+     * @return
+     */
+    Class<?> elementType() default Object.class;
+
+    /**
+     * 是否延迟解析（读取时保留原始json，第一次访问集合时才解析，只对 List 字段生效）
+     * @return
+     */
+    boolean lazy() default false;
+
+}
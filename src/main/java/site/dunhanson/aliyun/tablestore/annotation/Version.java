@@ -0,0 +1,18 @@
+package site.dunhanson.aliyun.tablestore.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 乐观锁的版本列（整型，更新时以条件检查版本和读取时一致，并原子地写入 版本+1，列不存在时视为0），也可以在 tableStore.yaml 的 versionColumn 中声明
+ * <p>只有 TableStoreUtils 的 update/updateChanged/batchUpdate 检查版本，其他写入方式不会修改版本列</p>
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Version {
+
+}
@@ -0,0 +1,120 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.Row;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 超长列值的分块存储（原列只存清单：0x00 'T' 'K' 版本 + 块数 + 原始类型，数据按块存到 列名__part1..N 的列，和原列在同一行）
+ */
+@Slf4j
+public final class Chunking {
+
+    /**块列名的分隔符**/
+    public static final String PART_SEPARATOR = "__part";
+    /**默认每块的字节数（ots 单列最大 2MB）**/
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    /**默认最多的块数（整行还要受单次请求 4MB 的限制）**/
+    public static final int DEFAULT_MAX_PARTS = 3;
+    /**清单的长度**/
+    private static final int MANIFEST_LENGTH = 9;
+    /**原始类型：字符串**/
+    private static final byte TYPE_STRING = 0;
+    /**原始类型：二进制**/
+    private static final byte TYPE_BINARY = 1;
+
+    private Chunking() {
+
+    }
+
+    /**
+     * 块的列名
+     * @param columnName    原列名
+     * @param part          块的序号（从1开始）
+     * @return
+     */
+    public static String partColumnName(String columnName, int part) {
+        return columnName + PART_SEPARATOR + part;
+    }
+
+    /**
+     * 需要分块时拆分成 清单列 + 块列
+     * @param columnName    原列名
+     * @param value         列值（字符串或者二进制）
+     * @param chunkSize     每块的字节数
+     * @param maxParts      最多的块数
+     * @return  不超过 chunkSize 时返回null（按原值写入）
+     */
+    public static List<Column> split(String columnName, ColumnValue value, int chunkSize, int maxParts) {
+        byte[] data;
+        byte type;
+        if (value.getType() == ColumnType.STRING) {
+            data = value.asStringInBytes();
+            type = TYPE_STRING;
+        } else if (value.getType() == ColumnType.BINARY) {
+            data = value.asBinary();
+            type = TYPE_BINARY;
+        } else {
+            return null;
+        }
+        if (data.length <= chunkSize) {
+            return null;
+        }
+        int parts = (data.length + chunkSize - 1) / chunkSize;
+        if (parts > maxParts) {
+            throw new IllegalArgumentException("列" + columnName + "的值有" + data.length + "字节，超过分块上限" + (long) chunkSize * maxParts + "字节");
+        }
+        List<Column> columns = new ArrayList<>(parts + 1);
+        ByteBuffer manifest = ByteBuffer.allocate(MANIFEST_LENGTH);
+        manifest.put((byte) 0).put((byte) 'T').put((byte) 'K').put((byte) 1).putInt(parts).put(type);
+        columns.add(new Column(columnName, ColumnValue.fromBinary(manifest.array())));
+        for (int i = 0; i < parts; i++) {
+            byte[] part = Arrays.copyOfRange(data, i * chunkSize, Math.min(data.length, (i + 1) * chunkSize));
+            columns.add(new Column(partColumnName(columnName, i + 1), ColumnValue.fromBinary(part)));
+        }
+        return columns;
+    }
+
+    /**
+     * 读取时按清单拼接块
+     * @param columnName    原列名
+     * @param value         原列读出的值
+     * @param row           {@link Row}（包含块列）
+     * @return  不是清单时返回原值，缺块时返回null
+     */
+    public static Object join(String columnName, Object value, Row row) {
+        if (!(value instanceof byte[])) {
+            return value;
+        }
+        byte[] bytes = (byte[]) value;
+        if (bytes.length != MANIFEST_LENGTH || bytes[0] != 0 || bytes[1] != 'T' || bytes[2] != 'K') {
+            return value;
+        }
+        ByteBuffer manifest = ByteBuffer.wrap(bytes, 4, MANIFEST_LENGTH - 4);
+        int parts = manifest.getInt();
+        byte type = manifest.get();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 1; i <= parts; i++) {
+            Column column = row.getLatestColumn(partColumnName(columnName, i));
+            if (column == null) {
+                log.warn("列{}缺少第{}块（共{}块），不读取该列", columnName, i, parts);
+                return null;
+            }
+            byte[] part = column.getValue().asBinary();
+            out.write(part, 0, part.length);
+        }
+        return type == TYPE_STRING ? new String(out.toByteArray(), StandardCharsets.UTF_8) : out.toByteArray();
+    }
+
+}
@@ -0,0 +1,311 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.PropertyNamingStrategy;
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.serializer.SerializeConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+import com.alicloud.openservices.tablestore.model.Column;
+import com.alicloud.openservices.tablestore.model.ColumnType;
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
+import com.alicloud.openservices.tablestore.model.PrimaryKeyValue;
+import com.alicloud.openservices.tablestore.model.Row;
+import lombok.extern.slf4j.Slf4j;
+
+import site.dunhanson.aliyun.tablestore.annotation.NestedColumn;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 实体字段与 ots 列的映射（构建时确定值的类型，读写时不再做类型判断）
+ */
+@Slf4j
+public final class ColumnMapping {
+
+    /**
+     * SerializeConfig全局一个即可（嵌套的json数组需要把驼峰法转成下划线再入库）
+     */
+    private static final SerializeConfig SERIALIZE_CONFIG = new SerializeConfig();
+    static {
+        SERIALIZE_CONFIG.propertyNamingStrategy = PropertyNamingStrategy.SnakeCase;
+    }
+
+    /**
+     * 字段值的类型
+     */
+    public enum Kind {
+        /**由 {@link TypeConverter} 转换**/
+        VALUE,
+        /**嵌套列（json字符串）**/
+        JSON,
+        /**其他未知类型**/
+        OTHER
+    }
+
+    /**字段名（驼峰）**/
+    private final String fieldName;
+    /**列名（下划线）**/
+    private final String columnName;
+    /**字段值的类型**/
+    private final Kind kind;
+    /**类型转换器（VALUE才有）**/
+    private final TypeConverter<Object> converter;
+    /**字段的泛型类型（用于反序列化）**/
+    private final Type genericType;
+    /**嵌套列的元素类型（用于反序列化）**/
+    private final Class<?> elementType;
+    /**嵌套列是否延迟解析**/
+    private final boolean lazy;
+    /**压缩算法（不压缩为空）**/
+    private final Compression compression;
+    /**读出的二进制是否可能是压缩的文本（byte[] 字段不解压）**/
+    private final boolean textField;
+    /**分块时每块的字节数**/
+    private final int chunkSize;
+    /**分块时最多的块数（不分块为0）**/
+    private final int maxParts;
+    /**读写器**/
+    private final PropertyAccessor accessor;
+    /**主键类型（非主键为空）**/
+    private PrimaryKeyType primaryKeyType;
+
+    ColumnMapping(Field field, String columnName, boolean nested, boolean lazy, Compression compression, int chunkSize, int maxParts) {
+        this.fieldName = field.getName();
+        this.columnName = columnName;
+        this.converter = TypeConverters.find(field.getType());
+        Kind fieldKind = converter != null ? Kind.VALUE : kindOf(field.getType());
+        this.kind = nested && fieldKind == Kind.OTHER ? Kind.JSON : fieldKind;
+        this.genericType = field.getGenericType();
+        this.elementType = kind == Kind.JSON ? elementTypeOf(field) : null;
+        this.lazy = lazy && elementType != null && field.getType().isAssignableFrom(LazyJsonList.class);
+        this.compression = compression;
+        this.textField = field.getType() != byte[].class;
+        this.chunkSize = chunkSize;
+        this.maxParts = maxParts;
+        this.accessor = PropertyAccessor.of(field);
+        if (kind == Kind.OTHER) {
+            log.warn("{}.{} 的类型暂不支持，不会写入ots（嵌套数据请使用 @NestedColumn 声明）", field.getDeclaringClass().getName(), fieldName);
+        }
+    }
+
+    /**
+     * 没有转换器的字段类型（集合和数组默认为嵌套列）
+     * @param type  字段类型
+     * @return
+     */
+    private static Kind kindOf(Class<?> type) {
+        if (Collection.class.isAssignableFrom(type) || type.isArray()) {
+            return Kind.JSON;
+        }
+        return Kind.OTHER;
+    }
+
+    /**
+     * 嵌套列的元素类型（List 字段才有，其他返回null）
+     * @param field     {@link Field}
+     * @return
+     */
+    private static Class<?> elementTypeOf(Field field) {
+        if (!field.getType().isAssignableFrom(ArrayList.class)) {
+            return null;
+        }
+        NestedColumn nestedColumn = field.getAnnotation(NestedColumn.class);
+        if (nestedColumn != null && nestedColumn.elementType() != Object.class) {
+            return nestedColumn.elementType();
+        }
+        Type type = field.getGenericType();
+        if (type instanceof ParameterizedType) {
+            Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argument instanceof Class) {
+                return (Class<?>) argument;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 读取实体的字段值
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public Object getValue(Object entity) {
+        return accessor.get(entity);
+    }
+
+    /**
+     * 字段值转换成 {@link ColumnValue}
+     * @param value     字段值
+     * @return  不支持的类型返回null（即不写入）
+     */
+    public ColumnValue toColumnValue(Object value) {
+        ColumnValue columnValue = encode(value);
+        if (compression != null && columnValue != null && columnValue.getType() == ColumnType.STRING) {
+            byte[] bytes = columnValue.asStringInBytes();
+            if (bytes.length >= Compression.MIN_SIZE) {
+                return ColumnValue.fromBinary(compression.compress(bytes));
+            }
+        }
+        return columnValue;
+    }
+
+    /**
+     * 列值转换成需要写入的列（超过每块的字节数时拆分成 清单列 + 块列）
+     * @param value     {@link #toColumnValue(Object)} 的结果
+     * @return
+     */
+    List<Column> toColumns(ColumnValue value) {
+        if (maxParts > 0) {
+            List<Column> columns = Chunking.split(columnName, value, chunkSize, maxParts);
+            if (columns != null) {
+                return columns;
+            }
+        }
+        return Collections.singletonList(new Column(columnName, value));
+    }
+
+    /**
+     * 读出的原列值按清单拼接块（不分块的列直接返回）
+     * @param value     原列读出的值
+     * @param row       {@link Row}
+     * @return
+     */
+    Object joinValue(Object value, Row row) {
+        return maxParts > 0 ? Chunking.join(columnName, value, row) : value;
+    }
+
+    /**
+     * 分块时最多的块数
+     * @return  不分块为0
+     */
+    public int getMaxParts() {
+        return maxParts;
+    }
+
+    /**
+     * 字段值转换成 {@link ColumnValue}（不压缩）
+     * @param value     字段值
+     * @return
+     */
+    private ColumnValue encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (kind) {
+            case VALUE:
+                return converter.toColumnValue(value);
+            case JSON:
+                if (value instanceof LazyJsonList) {     // 未解析过的直接写回原始json
+                    String text = ((LazyJsonList<?>) value).getText();
+                    if (text != null) {
+                        return ColumnValue.fromString(text);
+                    }
+                }
+                return ColumnValue.fromString(JSON.toJSONString(value, SERIALIZE_CONFIG));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 字段值转换成 {@link PrimaryKeyValue}（类型由表元数据确定）
+     * @param value     字段值
+     * @return
+     */
+    public PrimaryKeyValue toPrimaryKeyValue(Object value) {
+        if (value == null) {
+            throw new IllegalArgumentException("主键不能为空：" + columnName);
+        }
+        if (primaryKeyType == PrimaryKeyType.INTEGER) {
+            return PrimaryKeyValue.fromLong(((Number) value).longValue());
+        } else if (primaryKeyType == PrimaryKeyType.BINARY) {
+            return PrimaryKeyValue.fromBinary((byte[]) value);
+        }
+        return PrimaryKeyValue.fromString((String) value);
+    }
+
+    void setPrimaryKeyType(PrimaryKeyType primaryKeyType) {
+        this.primaryKeyType = primaryKeyType;
+    }
+
+    /**
+     * 把 ots 读出的值写入实体（按字段类型直接转换，不经过json）
+     * @param entity    实体类对象实例
+     * @param value     ots 读出的值（String/Long/Double/Boolean/byte[]）
+     */
+    public void setValue(Object entity, Object value) {
+        Object fieldValue = decodeValue(value);
+        if (fieldValue != null) {
+            accessor.set(entity, fieldValue);
+        }
+    }
+
+    /**
+     * ots 读出的值转换成字段值（转换失败时记录日志并返回null）
+     * @param value     ots 读出的值（String/Long/Double/Boolean/byte[]）
+     * @return
+     */
+    Object decodeValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            if (textField && value instanceof byte[]) {     // 压缩的列，没有压缩头的是旧数据
+                byte[] bytes = Compression.decompress((byte[]) value);
+                if (bytes != null) {
+                    value = new String(bytes, StandardCharsets.UTF_8);
+                }
+            }
+            return coerce(value);
+        } catch (Exception e) {
+            log.warn("列{}的值无法转换成字段{}的类型：{}", columnName, fieldName, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * ots 读出的值转换成字段类型
+     * @param value     ots 读出的值
+     * @return
+     */
+    private Object coerce(Object value) {
+        switch (kind) {
+            case VALUE:
+                return converter.fromColumnValue(value);
+            case JSON:
+                String text = ValueCoercions.toStringValue(value);
+                if (lazy) {
+                    return new LazyJsonList<>(text, elementType);
+                }
+                return elementType != null ? JSON.parseArray(text, elementType) : JSON.parseObject(text, genericType);
+            default:
+                return TypeUtils.cast(value, genericType, ParserConfig.getGlobalInstance());
+        }
+    }
+
+    Field getField() {
+        return accessor.getField();
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+}
@@ -0,0 +1,153 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import java.util.Arrays;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 实体类的列符号表（构建时确定 字段名/列名 与序号的双向映射，之后的查找只有数组下标和一次 equals）
+ */
+public final class ColumnSymbolTable {
+
+    /**序号 -> 字段名**/
+    private final String[] fieldNames;
+    /**序号 -> 列名**/
+    private final String[] columnNames;
+    /**列名的开放寻址表（包含别名）**/
+    private final NameTable columnTable;
+    /**字段名的开放寻址表**/
+    private final NameTable fieldTable;
+
+    /**
+     * 构建符号表
+     * @param fieldNames    字段名（下标即序号）
+     * @param columnNames   列名（下标即序号）
+     * @param aliases       列名的别名（长度为偶数：别名, 列名, 别名, 列名...）
+     */
+    ColumnSymbolTable(String[] fieldNames, String[] columnNames, String... aliases) {
+        this.fieldNames = fieldNames;
+        this.columnNames = columnNames;
+        this.columnTable = new NameTable(columnNames.length + aliases.length / 2);
+        this.fieldTable = new NameTable(fieldNames.length);
+        for (int i = 0; i < columnNames.length; i++) {
+            columnTable.put(columnNames[i], i);
+            fieldTable.put(fieldNames[i], i);
+        }
+        for (int i = 0; i + 1 < aliases.length; i += 2) {
+            int ordinal = columnTable.get(aliases[i + 1]);
+            if (ordinal >= 0 && columnTable.get(aliases[i]) < 0) {
+                columnTable.put(aliases[i], ordinal);
+            }
+        }
+    }
+
+    /**
+     * 列的数量
+     * @return
+     */
+    public int size() {
+        return columnNames.length;
+    }
+
+    /**
+     * 列名 -> 序号
+     * @param columnName    列名（下划线）
+     * @return  没有对应的字段时返回-1
+     */
+    public int ordinalOfColumn(String columnName) {
+        return columnTable.get(columnName);
+    }
+
+    /**
+     * 字段名 -> 序号
+     * @param fieldName     字段名（驼峰）
+     * @return  没有对应的字段时返回-1
+     */
+    public int ordinalOfField(String fieldName) {
+        return fieldTable.get(fieldName);
+    }
+
+    /**
+     * 序号 -> 列名
+     * @param ordinal   序号
+     * @return
+     */
+    public String columnName(int ordinal) {
+        return columnNames[ordinal];
+    }
+
+    /**
+     * 序号 -> 字段名
+     * @param ordinal   序号
+     * @return
+     */
+    public String fieldName(int ordinal) {
+        return fieldNames[ordinal];
+    }
+
+    /**
+     * 列名 -> 字段名
+     * @param columnName    列名（下划线）
+     * @return  没有对应的字段时返回null
+     */
+    public String fieldNameOfColumn(String columnName) {
+        int ordinal = columnTable.get(columnName);
+        return ordinal < 0 ? null : fieldNames[ordinal];
+    }
+
+    /**
+     * 字段名 -> 列名
+     * @param fieldName     字段名（驼峰）
+     * @return  没有对应的字段时返回null
+     */
+    public String columnNameOfField(String fieldName) {
+        int ordinal = fieldTable.get(fieldName);
+        return ordinal < 0 ? null : columnNames[ordinal];
+    }
+
+    /**
+     * 字符串 -> 序号 的开放寻址表（线性探测，构建后只读）
+     */
+    private static final class NameTable {
+        private final String[] keys;
+        private final int[] values;
+        private final int mask;
+
+        NameTable(int expectedSize) {
+            int capacity = 4;
+            while (capacity < expectedSize * 2) {
+                capacity <<= 1;
+            }
+            this.keys = new String[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+            Arrays.fill(values, -1);
+        }
+
+        void put(String key, int value) {
+            int index = spread(key.hashCode()) & mask;
+            while (keys[index] != null && !keys[index].equals(key)) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+        }
+
+        int get(String key) {
+            int index = spread(key.hashCode()) & mask;
+            String current;
+            while ((current = keys[index]) != null) {
+                if (current == key || current.equals(key)) {
+                    return values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 列的压缩算法（压缩后以二进制存储，前4个字节为头：0x00 'T' 'Z' 算法编号）
+ */
+public enum Compression {
+
+    /**deflate（zlib 格式）**/
+    DEFLATE((byte) 1),
+    /**gzip**/
+    GZIP((byte) 2);
+
+    /**头的长度**/
+    private static final int HEADER_LENGTH = 4;
+    /**小于该字节数的值不压缩（压缩收益很小，直接存字符串）**/
+    public static final int MIN_SIZE = 512;
+
+    /**写入头里的算法编号**/
+    private final byte id;
+
+    Compression(byte id) {
+        this.id = id;
+    }
+
+    /**
+     * 根据配置的名称获取（不区分大小写）
+     * @param name  deflate/gzip
+     * @return
+     */
+    public static Compression of(String name) {
+        for (Compression compression : values()) {
+            if (compression.name().equalsIgnoreCase(name)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("不支持的压缩算法：" + name + "（支持 deflate/gzip）");
+    }
+
+    /**
+     * 压缩（带头）
+     * @param data  原始字节
+     * @return
+     */
+    public byte[] compress(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + HEADER_LENGTH);
+        out.write(0);
+        out.write('T');
+        out.write('Z');
+        out.write(id);
+        try (OutputStream stream = this == GZIP ? new GZIPOutputStream(out) : new DeflaterOutputStream(out)) {
+            stream.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解压（按头里的算法，和当前配置的算法无关）
+     * @param data  ots 读出的二进制
+     * @return  没有压缩头时返回null
+     */
+    public static byte[] decompress(byte[] data) {
+        if (data.length < HEADER_LENGTH || data[0] != 0 || data[1] != 'T' || data[2] != 'Z') {
+            return null;
+        }
+        if (data[3] != DEFLATE.id && data[3] != GZIP.id) {
+            throw new IllegalStateException("未知的压缩算法编号：" + data[3]);
+        }
+        ByteArrayInputStream in = new ByteArrayInputStream(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+        try (InputStream stream = data[3] == GZIP.id ? new GZIPInputStream(in) : new InflaterInputStream(in)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = stream.read(buffer)) > 0) {
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
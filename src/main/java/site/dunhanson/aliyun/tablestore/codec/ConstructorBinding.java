@@ -0,0 +1,129 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 不可变实体的构造绑定（final字段/全参构造/record，参数顺序即字段声明顺序，解码时按序号填参数后调用一次构造）
+ */
+final class ConstructorBinding<T> {
+
+    /**实体类**/
+    private final Class<T> clazz;
+    /**全参构造（(Object[])Object）**/
+    private final MethodHandle constructor;
+    /**参数默认值（基本类型为 0/false，其他为空）**/
+    private final Object[] defaults;
+
+    private ConstructorBinding(Class<T> clazz, MethodHandle constructor, Object[] defaults) {
+        this.clazz = clazz;
+        this.constructor = constructor;
+        this.defaults = defaults;
+    }
+
+    /**
+     * 查找实体类的全参构造
+     * @param clazz     实体类
+     * @param mappings  序号 -> 映射
+     * @param <T>
+     * @return  有无参构造并且字段都可写时返回null（即使用 setter）
+     */
+    static <T> ConstructorBinding<T> find(Class<T> clazz, ColumnMapping[] mappings) {
+        // 1、判断是否需要构造绑定
+        Class<?>[] parameterTypes = new Class<?>[mappings.length];
+        boolean hasFinal = false;
+        for (int i = 0; i < mappings.length; i++) {
+            Field field = mappings[i].getField();
+            parameterTypes[i] = field.getType();
+            hasFinal |= Modifier.isFinal(field.getModifiers());
+        }
+        if (!hasFinal && hasNoArgsConstructor(clazz)) {
+            return null;
+        }
+        // 2、参数类型和字段声明顺序一致的构造（lombok @AllArgsConstructor/@Value 以及 record 都是这个顺序）
+        Constructor<T> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            if (hasFinal) {
+                throw new IllegalStateException(clazz.getName() + " 缺少按字段声明顺序的全参构造");
+            }
+            return null;
+        }
+        // 3、绑定成 (Object[])Object
+        try {
+            constructor.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+            Object[] defaults = new Object[parameterTypes.length];
+            for (int i = 0; i < parameterTypes.length; i++) {
+                defaults[i] = defaultValue(parameterTypes[i]);
+            }
+            return new ConstructorBinding<>(clazz, handle, defaults);
+        } catch (Exception e) {
+            throw new IllegalStateException(clazz.getName() + " 全参构造绑定失败", e);
+        }
+    }
+
+    /**
+     * 新的参数数组（已经填好默认值）
+     * @return
+     */
+    Object[] newArguments() {
+        return defaults.clone();
+    }
+
+    /**
+     * 调用构造
+     * @param arguments     参数（下标即序号）
+     * @return
+     */
+    T newInstance(Object[] arguments) {
+        try {
+            return clazz.cast(constructor.invokeExact(arguments));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(clazz.getName() + " 构造失败：" + Arrays.toString(arguments), e);
+        }
+    }
+
+    private static boolean hasNoArgsConstructor(Class<?> clazz) {
+        try {
+            clazz.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        } else if (type == boolean.class) {
+            return false;
+        } else if (type == char.class) {
+            return '\0';
+        } else if (type == long.class) {
+            return 0L;
+        } else if (type == double.class) {
+            return 0D;
+        } else if (type == float.class) {
+            return 0F;
+        } else if (type == int.class) {
+            return 0;
+        } else if (type == short.class) {
+            return (short) 0;
+        }
+        return (byte) 0;
+    }
+
+}
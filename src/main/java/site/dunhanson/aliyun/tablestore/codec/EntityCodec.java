@@ -0,0 +1,618 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.condition.SingleColumnValueCondition;
+import site.dunhanson.aliyun.tablestore.annotation.ChunkedColumn;
+import site.dunhanson.aliyun.tablestore.annotation.CompressedColumn;
+import site.dunhanson.aliyun.tablestore.annotation.NestedColumn;
+import site.dunhanson.aliyun.tablestore.annotation.Version;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
+import site.dunhanson.aliyun.tablestore.utils.CommonUtils;
+import site.dunhanson.aliyun.tablestore.utils.TableMetadataRegistry;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 实体类的编解码器（每个实体类只构建一次，负责 实体 <-> {@link Row}/{@link RowChange}/{@link PrimaryKey} 的转换）
+ */
+public final class EntityCodec<T> {
+
+    /**实体类**/
+    private final Class<T> clazz;
+    /**表名**/
+    private final String tableName;
+    /**列符号表**/
+    private final ColumnSymbolTable symbolTable;
+    /**序号 -> 映射**/
+    private final ColumnMapping[] mappings;
+    /**主键列名（按配置的顺序）**/
+    private final String[] primaryKeyNames;
+    /**主键（按配置的顺序）**/
+    private final ColumnMapping[] primaryKeys;
+    /**非主键的列**/
+    private final ColumnMapping[] columns;
+    /**乐观锁的版本列（没有时为空）**/
+    private final ColumnMapping versionColumn;
+    /**无参构造（构造绑定时为空）**/
+    private final Supplier<T> factory;
+    /**不可变实体的构造绑定（使用 setter 时为空）**/
+    private final ConstructorBinding<T> constructorBinding;
+    /**默认投影（排除配置的 ignoreColumn）**/
+    private final Projection<T> defaultProjection;
+    /**大字段的投影（只包含配置的 ignoreColumn，没有配置时为空）**/
+    private final Projection<T> heavyProjection;
+    /**全部列的投影**/
+    private final Projection<T> allProjection;
+    /**忽略列 -> 投影**/
+    private final Map<Set<String>, Projection<T>> excludeProjections = new ConcurrentHashMap<>();
+    /**指定列 -> 投影**/
+    private final Map<Set<String>, Projection<T>> includeProjections = new ConcurrentHashMap<>();
+
+    EntityCodec(Class<T> clazz) {
+        this.clazz = clazz;
+        TableMetadata tableMetadata = TableMetadataRegistry.get(clazz);
+        this.tableName = tableMetadata.getTableName();
+        List<TableMetadata.KeyColumn> keyColumns = tableMetadata.getPrimaryKeys();
+
+        // 1、字段映射（下标即序号）
+        List<ColumnMapping> mappingList = new ArrayList<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                continue;
+            }
+            String columnName = CommonUtils.humpToUnderline(field.getName());
+            NestedColumn nestedColumn = field.getAnnotation(NestedColumn.class);
+            boolean nested = nestedColumn != null || tableMetadata.getNestedColumns().contains(columnName);
+            boolean lazy = (nestedColumn != null && nestedColumn.lazy()) || tableMetadata.isLazyNested();
+            CompressedColumn compressedColumn = field.getAnnotation(CompressedColumn.class);
+            Compression compression = compressedColumn != null ? compressedColumn.value()
+                    : tableMetadata.getCompressColumns().contains(columnName) ? Compression.of(tableMetadata.getCompression()) : null;
+            ChunkedColumn chunkedColumn = field.getAnnotation(ChunkedColumn.class);
+            int chunkSize = chunkedColumn != null ? chunkedColumn.chunkSize() : Chunking.DEFAULT_CHUNK_SIZE;
+            int maxParts = chunkedColumn != null ? chunkedColumn.maxParts()
+                    : tableMetadata.getChunkColumns().contains(columnName) ? Chunking.DEFAULT_MAX_PARTS : 0;
+            mappingList.add(new ColumnMapping(field, columnName, nested, lazy, compression, chunkSize, maxParts));
+        }
+        this.mappings = mappingList.toArray(new ColumnMapping[0]);
+
+        // 2、符号表（配置的主键名和字段名不一致时作为别名）
+        String[] fieldNames = new String[mappings.length];
+        String[] columnNames = new String[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            fieldNames[i] = mappings[i].getFieldName();
+            columnNames[i] = mappings[i].getColumnName();
+        }
+        String[] aliases = new String[keyColumns.size() * 2];
+        for (int i = 0; i < keyColumns.size(); i++) {
+            String key = keyColumns.get(i).getName();
+            aliases[i * 2] = key;
+            aliases[i * 2 + 1] = CommonUtils.humpToUnderline(CommonUtils.underlineToHump(key));
+        }
+        this.symbolTable = new ColumnSymbolTable(fieldNames, columnNames, aliases);
+
+        // 3、主键映射
+        this.primaryKeyNames = new String[keyColumns.size()];
+        this.primaryKeys = new ColumnMapping[keyColumns.size()];
+        boolean[] isPrimaryKey = new boolean[mappings.length];
+        for (int i = 0; i < primaryKeys.length; i++) {
+            String key = keyColumns.get(i).getName();
+            int ordinal = symbolTable.ordinalOfColumn(key);
+            if (ordinal < 0) {
+                throw new IllegalStateException(clazz.getName() + " 缺少主键对应的字段：" + key);
+            }
+            mappings[ordinal].setPrimaryKeyType(keyColumns.get(i).getType());
+            primaryKeyNames[i] = key;
+            primaryKeys[i] = mappings[ordinal];
+            isPrimaryKey[ordinal] = true;
+        }
+        List<ColumnMapping> columnList = new ArrayList<>();
+        for (int i = 0; i < mappings.length; i++) {
+            if (!isPrimaryKey[i]) {
+                columnList.add(mappings[i]);
+            }
+        }
+        this.columns = columnList.toArray(new ColumnMapping[0]);
+        this.versionColumn = findVersionColumn(tableMetadata.getVersionColumn());
+        this.constructorBinding = ConstructorBinding.find(clazz, mappings);
+        this.factory = constructorBinding == null ? buildFactory(clazz) : null;
+        this.allProjection = new Projection<>(this, mappings);
+        this.defaultProjection = buildExclude(tableMetadata.getIgnoreColumns());
+        this.heavyProjection = defaultProjection.isReturnAll() ? null : buildInclude(tableMetadata.getIgnoreColumns());
+    }
+
+    /**
+     * 构造主键
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public PrimaryKey toPrimaryKey(T entity) {
+        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+        for (int i = 0; i < primaryKeys.length; i++) {
+            ColumnMapping mapping = primaryKeys[i];
+            primaryKeyBuilder.addPrimaryKeyColumn(primaryKeyNames[i], mapping.toPrimaryKeyValue(mapping.getValue(entity)));
+        }
+        return primaryKeyBuilder.build();
+    }
+
+    /**
+     * 构建 {@link RowPutChange} 行的写入对象（只会写入不为空的字段）
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public RowPutChange toRowPutChange(T entity) {
+        RowPutChange rowPutChange = new RowPutChange(tableName, toPrimaryKey(entity));
+        for (ColumnMapping mapping : columns) {
+            ColumnValue value = mapping.toColumnValue(mapping.getValue(entity));
+            if (value != null) {
+                for (Column column : mapping.toColumns(value)) {
+                    rowPutChange.addColumn(column);
+                }
+            }
+        }
+        return rowPutChange;
+    }
+
+    /**
+     * 构建 {@link RowUpdateChange} 行的更新对象（只会更新不为空的字段，不包含版本列，不设置条件）
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public RowUpdateChange toRowUpdateChange(T entity) {
+        RowUpdateChange rowUpdateChange = new RowUpdateChange(tableName, toPrimaryKey(entity));
+        for (ColumnMapping mapping : columns) {
+            ColumnValue value = mapping == versionColumn ? null : mapping.toColumnValue(mapping.getValue(entity));
+            if (value != null) {
+                put(rowUpdateChange, mapping, value);
+            }
+        }
+        return rowUpdateChange;
+    }
+
+    /**
+     * 记录实体当前的列值快照（下标和非主键的列对应，为空表示该列没有值）
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public ColumnValue[] snapshot(T entity) {
+        ColumnValue[] snapshot = new ColumnValue[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            ColumnMapping mapping = columns[i];
+            snapshot[i] = mapping.toColumnValue(mapping.getValue(entity));
+        }
+        return snapshot;
+    }
+
+    /**
+     * 构建只包含变化列的 {@link RowUpdateChange}（值变化的列写入，快照有值而现在为空的列删除，不包含版本列，不设置条件）
+     * @param snapshot  读取时记录的快照（{@link #snapshot(Object)}）
+     * @param entity    修改后的实体类对象实例
+     * @return  没有变化时 getColumnsToUpdate() 为空
+     */
+    public RowUpdateChange toRowUpdateChange(ColumnValue[] snapshot, T entity) {
+        RowUpdateChange rowUpdateChange = new RowUpdateChange(tableName, toPrimaryKey(entity));
+        for (int i = 0; i < columns.length; i++) {
+            ColumnMapping mapping = columns[i];
+            if (mapping == versionColumn) {
+                continue;
+            }
+            ColumnValue value = mapping.toColumnValue(mapping.getValue(entity));
+            if (value == null) {
+                if (snapshot[i] != null) {
+                    rowUpdateChange.deleteColumns(mapping.getColumnName());
+                    deleteParts(rowUpdateChange, mapping, 1);
+                }
+            } else if (!value.equals(snapshot[i])) {
+                put(rowUpdateChange, mapping, value);
+            }
+        }
+        return rowUpdateChange;
+    }
+
+    /**
+     * 构建只包含变化列的 {@link RowUpdateChange}（主键以 after 为准）
+     * @param before    修改前的实体类对象实例
+     * @param after     修改后的实体类对象实例
+     * @return  没有变化时 getColumnsToUpdate() 为空
+     */
+    public RowUpdateChange toRowUpdateChange(T before, T after) {
+        return toRowUpdateChange(snapshot(before), after);
+    }
+
+    /**
+     * 构建服务端原子自增的 {@link RowUpdateChange}（只包含自增的列，不设置条件，列不存在时从0开始）
+     * @param entity    实体类对象实例（只使用主键）
+     * @param deltas    字段名或者列名 -> 增量（可以为负数）
+     * @return
+     */
+    public RowUpdateChange toIncrementChange(T entity, Map<String, Long> deltas) {
+        RowUpdateChange rowUpdateChange = new RowUpdateChange(tableName, toPrimaryKey(entity));
+        for (Map.Entry<String, Long> entry : deltas.entrySet()) {
+            rowUpdateChange.increment(new Column(counterColumnName(entry.getKey()), ColumnValue.fromLong(entry.getValue())));
+        }
+        return rowUpdateChange;
+    }
+
+    /**
+     * 自增字段对应的列名（只支持整型的非主键字段）
+     * @param name  字段名或者列名
+     * @return
+     */
+    public String counterColumnName(String name) {
+        int ordinal = symbolTable.ordinalOfField(name);
+        if (ordinal < 0) {
+            ordinal = symbolTable.ordinalOfColumn(name);
+        }
+        if (ordinal < 0) {
+            throw new IllegalArgumentException(clazz.getName() + " 没有字段：" + name);
+        }
+        ColumnMapping mapping = mappings[ordinal];
+        Class<?> type = PropertyAccessor.wrap(mapping.getField().getType());
+        if (Arrays.asList(primaryKeys).contains(mapping) || (type != Long.class && type != Integer.class && type != Short.class)) {
+            throw new IllegalArgumentException(clazz.getName() + "." + mapping.getFieldName() + " 不是整型的非主键字段，不能自增");
+        }
+        return mapping.getColumnName();
+    }
+
+    /**
+     * 是否有乐观锁的版本列
+     * @return
+     */
+    public boolean isVersioned() {
+        return versionColumn != null;
+    }
+
+    /**
+     * 设置乐观锁的条件（行存在且版本列等于实体的版本，列不存在时视为0），并写入 版本+1
+     * @param rowUpdateChange   行的更新对象
+     * @param entity            实体类对象实例（版本为空时视为0）
+     * @return  rowUpdateChange
+     */
+    public RowUpdateChange applyVersion(RowUpdateChange rowUpdateChange, T entity) {
+        long version = currentVersion(entity);
+        SingleColumnValueCondition columnCondition = new SingleColumnValueCondition(versionColumn.getColumnName(),
+                SingleColumnValueCondition.CompareOperator.EQUAL, ColumnValue.fromLong(version));
+        columnCondition.setPassIfMissing(version == 0);
+        columnCondition.setLatestVersionsOnly(true);
+        Condition condition = new Condition(RowExistenceExpectation.EXPECT_EXIST);
+        condition.setColumnCondition(columnCondition);
+        rowUpdateChange.setCondition(condition);
+        rowUpdateChange.put(versionColumn.getColumnName(), ColumnValue.fromLong(version + 1));
+        return rowUpdateChange;
+    }
+
+    /**
+     * 更新成功后把实体的版本加1（和 {@link #applyVersion(RowUpdateChange, Object)} 写入的值一致）
+     * @param entity    实体类对象实例
+     */
+    public void advanceVersion(T entity) {
+        versionColumn.setValue(entity, currentVersion(entity) + 1);
+    }
+
+    private long currentVersion(T entity) {
+        Object version = versionColumn.getValue(entity);
+        return version == null ? 0 : ((Number) version).longValue();
+    }
+
+    /**
+     * 查找乐观锁的版本列（@Version 注解或者配置的 versionColumn，只支持整型的非主键字段）
+     */
+    private ColumnMapping findVersionColumn(String configured) {
+        ColumnMapping found = null;
+        for (ColumnMapping mapping : mappings) {
+            if (mapping.getField().isAnnotationPresent(Version.class) || mapping.getColumnName().equals(configured)) {
+                if (found != null && found != mapping) {
+                    throw new IllegalStateException(clazz.getName() + " 只能有一个版本列");
+                }
+                found = mapping;
+            }
+        }
+        if (found == null) {
+            if (configured != null) {
+                throw new IllegalStateException(clazz.getName() + " 缺少版本列对应的字段：" + configured);
+            }
+            return null;
+        }
+        counterColumnName(found.getColumnName());     // 检查是整型的非主键字段
+        return found;
+    }
+
+    /**
+     * 更新一列（分块的列同时删除这次没有用到的旧块）
+     */
+    private static void put(RowUpdateChange rowUpdateChange, ColumnMapping mapping, ColumnValue value) {
+        List<Column> columns = mapping.toColumns(value);
+        rowUpdateChange.put(columns);
+        deleteParts(rowUpdateChange, mapping, columns.size());
+    }
+
+    /**
+     * 删除分块的列从 fromPart 开始的块（不分块的列不处理）
+     */
+    private static void deleteParts(RowUpdateChange rowUpdateChange, ColumnMapping mapping, int fromPart) {
+        for (int part = fromPart; part <= mapping.getMaxParts(); part++) {
+            rowUpdateChange.deleteColumns(Chunking.partColumnName(mapping.getColumnName(), part));
+        }
+    }
+
+    /**
+     * 构建 {@link RowDeleteChange} 行的删除对象
+     * @param entity    实体类对象实例
+     * @return
+     */
+    public RowDeleteChange toRowDeleteChange(T entity) {
+        return new RowDeleteChange(tableName, toPrimaryKey(entity));
+    }
+
+    /**
+     * 行转换成对象（直接遍历主键和列写入字段，不经过json）
+     * @param row   {@link Row}
+     * @return
+     */
+    public T decode(Row row) {
+        return decode(row, mappings);
+    }
+
+    /**
+     * 行转换成对象（只写入 selected 内的字段）
+     * @param row       {@link Row}
+     * @param selected  序号 -> 映射（不需要写入的为空）
+     * @return
+     */
+    T decode(Row row, ColumnMapping[] selected) {
+        if (constructorBinding == null) {
+            return decodeInto(factory.get(), row, selected);
+        }
+        // 不可变实体：先按序号收集参数，再调用一次构造
+        Object[] arguments = constructorBinding.newArguments();
+        for (PrimaryKeyColumn column : row.getPrimaryKey().getPrimaryKeyColumns()) {
+            int ordinal = symbolTable.ordinalOfColumn(column.getName());
+            if (ordinal >= 0) {
+                Object value = mappings[ordinal].decodeValue(primaryKeyValue(column.getValue()));
+                if (value != null) {
+                    arguments[ordinal] = value;
+                }
+            }
+        }
+        for (Column column : row.getColumns()) {
+            int ordinal = symbolTable.ordinalOfColumn(column.getName());
+            if (ordinal >= 0 && selected[ordinal] != null) {
+                Object value = selected[ordinal].decodeValue(selected[ordinal].joinValue(column.getValue().getValue(), row));
+                if (value != null) {
+                    arguments[ordinal] = value;
+                }
+            }
+        }
+        return constructorBinding.newInstance(arguments);
+    }
+
+    /**
+     * 把行写入已有的对象（只写入 selected 内的字段，不可变实体不支持）
+     * @param entity    实体类对象实例
+     * @param row       {@link Row}
+     * @param selected  序号 -> 映射（不需要写入的为空）
+     * @return
+     */
+    T decodeInto(T entity, Row row, ColumnMapping[] selected) {
+        if (constructorBinding != null) {
+            throw new UnsupportedOperationException(clazz.getName() + " 是不可变实体，不支持合并");
+        }
+        // 1、主键
+        for (PrimaryKeyColumn column : row.getPrimaryKey().getPrimaryKeyColumns()) {
+            int ordinal = symbolTable.ordinalOfColumn(column.getName());
+            if (ordinal >= 0) {
+                mappings[ordinal].setValue(entity, primaryKeyValue(column.getValue()));
+            }
+        }
+        // 2、其他列
+        for (Column column : row.getColumns()) {
+            int ordinal = symbolTable.ordinalOfColumn(column.getName());
+            if (ordinal >= 0 && selected[ordinal] != null) {
+                selected[ordinal].setValue(entity, selected[ordinal].joinValue(column.getValue().getValue(), row));
+            }
+        }
+        return entity;
+    }
+
+    /**
+     * 记录转换成对象（用于导入 json/csv，key 为列名或者字段名，值按字段类型转换，没有对应字段的忽略）
+     * @param record    列名或者字段名 -> 值（字符串/数字/布尔/json数组）
+     * @return
+     */
+    public T decode(Map<String, ?> record) {
+        Object[] arguments = constructorBinding == null ? null : constructorBinding.newArguments();
+        T entity = constructorBinding == null ? factory.get() : null;
+        for (Map.Entry<String, ?> entry : record.entrySet()) {
+            int ordinal = symbolTable.ordinalOfColumn(entry.getKey());
+            if (ordinal < 0) {
+                ordinal = symbolTable.ordinalOfField(entry.getKey());
+            }
+            if (ordinal < 0 || entry.getValue() == null) {
+                continue;
+            }
+            if (entity != null) {
+                mappings[ordinal].setValue(entity, entry.getValue());
+            } else {
+                Object value = mappings[ordinal].decodeValue(entry.getValue());
+                if (value != null) {
+                    arguments[ordinal] = value;
+                }
+            }
+        }
+        return entity != null ? entity : constructorBinding.newInstance(arguments);
+    }
+
+    /**
+     * 多行转换成对象集合（按行数预分配）
+     * @param rows  {@link Row} 集合
+     * @return
+     */
+    public List<T> decode(List<Row> rows) {
+        List<T> list = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            list.add(decode(row));
+        }
+        return list;
+    }
+
+    /**
+     * 根据列名读取实体的字段值
+     * @param entity        实体类对象实例
+     * @param columnName    列名（下划线）
+     * @return  没有对应的字段时返回null
+     */
+    public Object getValue(T entity, String columnName) {
+        int ordinal = symbolTable.ordinalOfColumn(columnName);
+        return ordinal < 0 ? null : mappings[ordinal].getValue(entity);
+    }
+
+    /**
+     * 默认投影（排除表配置的 ignoreColumn）
+     * @return
+     */
+    public Projection<T> defaultProjection() {
+        return defaultProjection;
+    }
+
+    /**
+     * 大字段的投影（只包含表配置的 ignoreColumn，用于按需补全）
+     * @return  没有配置 ignoreColumn 时返回null
+     */
+    public Projection<T> heavyProjection() {
+        return heavyProjection;
+    }
+
+    /**
+     * 排除指定列的投影（按忽略列的集合缓存）
+     * @param ignoreColumns     忽略的列（下划线）
+     * @return
+     */
+    public Projection<T> exclude(Collection<String> ignoreColumns) {
+        if (ignoreColumns == null || ignoreColumns.isEmpty()) {
+            return allProjection;
+        }
+        Set<?> key = ignoreColumns instanceof Set ? (Set<?>) ignoreColumns : new HashSet<>(ignoreColumns);
+        Projection<T> projection = excludeProjections.get(key);
+        if (projection == null) {
+            projection = excludeProjections.computeIfAbsent(new HashSet<>(ignoreColumns), this::buildExclude);
+        }
+        return projection;
+    }
+
+    /**
+     * 只包含指定列的投影（按列的集合缓存，主键总是会写入）
+     * @param columns   需要获取的列（下划线，为空时查全部）
+     * @return
+     * @throws IllegalArgumentException 有实体类没有映射的列
+     */
+    public Projection<T> include(Collection<String> columns) {
+        if (columns == null || columns.isEmpty()) {
+            return allProjection;
+        }
+        Set<?> key = columns instanceof Set ? (Set<?>) columns : new HashSet<>(columns);
+        Projection<T> projection = includeProjections.get(key);
+        if (projection == null) {
+            projection = includeProjections.computeIfAbsent(new HashSet<>(columns), this::buildInclude);
+        }
+        return projection;
+    }
+
+    private Projection<T> buildExclude(Set<String> ignoreColumns) {
+        ColumnMapping[] selected = mappings.clone();
+        for (String column : ignoreColumns) {
+            int ordinal = symbolTable.ordinalOfColumn(column);
+            if (ordinal >= 0) {
+                selected[ordinal] = null;
+            }
+        }
+        return new Projection<>(this, selected);
+    }
+
+    private Projection<T> buildInclude(Set<String> columns) {
+        ColumnMapping[] selected = new ColumnMapping[mappings.length];
+        List<String> unknown = new ArrayList<>();
+        for (String column : columns) {
+            int ordinal = symbolTable.ordinalOfColumn(column);
+            if (ordinal >= 0) {
+                selected[ordinal] = mappings[ordinal];
+            } else {
+                unknown.add(column);
+            }
+        }
+        // 写错的列名直接报错（否则 get 会退化成查全部，多元索引会什么都不返回）
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException(clazz.getName() + " 没有列：" + unknown);
+        }
+        return new Projection<>(this, selected);
+    }
+
+    public ColumnSymbolTable getSymbolTable() {
+        return symbolTable;
+    }
+
+    public Class<T> getEntityClass() {
+        return clazz;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    private static Object primaryKeyValue(PrimaryKeyValue value) {
+        switch (value.getType()) {
+            case INTEGER:
+                return value.asLong();
+            case BINARY:
+                return value.asBinary();
+            default:
+                return value.asString();
+        }
+    }
+
+    /**
+     * 通过 {@link LambdaMetafactory} 绑定无参构造
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> buildFactory(Class<T> clazz) {
+        try {
+            Constructor<T> constructor = clazz.getDeclaredConstructor();
+            if (Modifier.isPublic(constructor.getModifiers()) && Modifier.isPublic(clazz.getModifiers())) {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle handle = lookup.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        handle,
+                        MethodType.methodType(clazz));
+                return (Supplier<T>) site.getTarget().invokeExact();
+            }
+            constructor.setAccessible(true);
+            return () -> {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            };
+        } catch (NoSuchMethodException e) {
+            return () -> {
+                throw new IllegalStateException(clazz.getName() + " 缺少无参构造");
+            };
+        } catch (Throwable e) {
+            throw new IllegalStateException(clazz.getName() + " 无参构造绑定失败", e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description {@link EntityCodec} 的缓存（每个实体类只构建一次）
+ */
+public class EntityCodecs {
+
+    /**实体类 -> 编解码器**/
+    private static final Map<Class<?>, EntityCodec<?>> codecMap = new ConcurrentHashMap<>();
+
+    private EntityCodecs() {
+
+    }
+
+    /**
+     * 获取实体类的编解码器
+     * @param clazz     实体类
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> EntityCodec<T> of(Class<T> clazz) {
+        EntityCodec<?> codec = codecMap.get(clazz);
+        if (codec == null) {
+            codec = codecMap.computeIfAbsent(clazz, key -> new EntityCodec<>(key));
+        }
+        return (EntityCodec<T>) codec;
+    }
+
+    /**
+     * 根据对象获取编解码器
+     * @param obj   实体类对象实例
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static EntityCodec<Object> ofEntity(Object obj) {
+        return (EntityCodec<Object>) of(obj.getClass());
+    }
+
+}
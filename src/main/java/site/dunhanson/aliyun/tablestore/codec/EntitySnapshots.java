@@ -0,0 +1,47 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+import com.google.common.collect.MapMaker;
+
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 读取时记录的实体快照（按对象的引用保存，对象被回收后快照自动清除）
+ */
+public class EntitySnapshots {
+
+    /**实体对象 -> 快照（弱引用，按 == 比较）**/
+    private static final ConcurrentMap<Object, ColumnValue[]> SNAPSHOTS = new MapMaker().weakKeys().makeMap();
+
+    private EntitySnapshots() {
+
+    }
+
+    /**
+     * 记录实体当前的列值
+     * @param obj   实体类对象实例
+     */
+    public static void record(Object obj) {
+        SNAPSHOTS.put(obj, EntityCodecs.ofEntity(obj).snapshot(obj));
+    }
+
+    /**
+     * 获取记录的快照
+     * @param obj   实体类对象实例
+     * @return  没有记录时为空
+     */
+    public static ColumnValue[] get(Object obj) {
+        return SNAPSHOTS.get(obj);
+    }
+
+    /**
+     * 清除记录的快照
+     * @param obj   实体类对象实例
+     */
+    public static void remove(Object obj) {
+        SNAPSHOTS.remove(obj);
+    }
+
+}
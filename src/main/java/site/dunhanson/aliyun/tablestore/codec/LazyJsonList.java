@@ -0,0 +1,89 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alibaba.fastjson.JSON;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 延迟解析的嵌套列（保留 ots 读出的原始 json 字符串，第一次访问时才解析）
+ */
+public final class LazyJsonList<E> extends AbstractList<E> implements RandomAccess {
+
+    /**原始json（解析后置空）**/
+    private volatile String text;
+    /**元素类型**/
+    private final Class<E> elementType;
+    /**解析后的集合**/
+    private volatile List<E> list;
+
+    LazyJsonList(String text, Class<E> elementType) {
+        this.text = text;
+        this.elementType = elementType;
+    }
+
+    /**
+     * 是否已经解析
+     * @return
+     */
+    public boolean isDecoded() {
+        return list != null;
+    }
+
+    /**
+     * 未解析时返回原始json（写入时直接使用，避免 解析 + 序列化）
+     * @return  已解析时返回null
+     */
+    String getText() {
+        return text;
+    }
+
+    private List<E> decoded() {
+        List<E> result = list;
+        if (result == null) {
+            synchronized (this) {
+                result = list;
+                if (result == null) {
+                    List<E> parsed = JSON.parseArray(text, elementType);
+                    result = parsed == null ? new ArrayList<>() : parsed;
+                    list = result;
+                    text = null;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public E get(int index) {
+        return decoded().get(index);
+    }
+
+    @Override
+    public int size() {
+        return decoded().size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return decoded().set(index, element);
+    }
+
+    @Override
+    public void add(int index, E element) {
+        decoded().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E element = decoded().remove(index);
+        modCount++;
+        return element;
+    }
+
+}
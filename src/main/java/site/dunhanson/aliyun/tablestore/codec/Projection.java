@@ -0,0 +1,120 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.Row;
+import com.alicloud.openservices.tablestore.model.search.SearchRequest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 实体类的列投影（由 {@link EntityCodec} 按 忽略列/指定列 缓存，构建后不可变，解码时只写入投影内的字段）
+ */
+public final class Projection<T> {
+
+    /**编解码器**/
+    private final EntityCodec<T> codec;
+    /**序号 -> 映射（不在投影内的为空）**/
+    private final ColumnMapping[] selected;
+    /**是否查全部**/
+    private final boolean returnAll;
+    /**需要获取的列（查全部时为空集合）**/
+    private final List<String> columns;
+    /**多元索引的返回列（多个请求共用，不要修改）**/
+    private final SearchRequest.ColumnsToGet columnsToGet;
+
+    /**
+     * @param codec     编解码器
+     * @param selected  序号 -> 映射（不在投影内的为空，全部不为空时即查全部）
+     */
+    Projection(EntityCodec<T> codec, ColumnMapping[] selected) {
+        this.codec = codec;
+        this.selected = selected;
+        List<String> list = new ArrayList<>(selected.length);
+        for (ColumnMapping mapping : selected) {
+            if (mapping != null) {
+                list.add(mapping.getColumnName());
+                for (int part = 1; part <= mapping.getMaxParts(); part++) {     // 分块的列需要同时获取块列
+                    list.add(Chunking.partColumnName(mapping.getColumnName(), part));
+                }
+            }
+        }
+        int count = 0;
+        for (ColumnMapping mapping : selected) {
+            if (mapping != null) {
+                count++;
+            }
+        }
+        this.returnAll = count == selected.length;
+        this.columns = returnAll ? Collections.emptyList() : Collections.unmodifiableList(list);
+        this.columnsToGet = new SearchRequest.ColumnsToGet();
+        if (returnAll) {
+            columnsToGet.setReturnAll(true);
+        } else {
+            columnsToGet.setColumns(columns);
+        }
+    }
+
+    /**
+     * 是否查全部
+     * @return
+     */
+    public boolean isReturnAll() {
+        return returnAll;
+    }
+
+    /**
+     * 需要获取的列（用于 get/batchGetRow 的 columnsToGet）
+     * @return  查全部时为空集合
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * 多元索引的返回列
+     * @return
+     */
+    public SearchRequest.ColumnsToGet getColumnsToGet() {
+        return columnsToGet;
+    }
+
+    /**
+     * 行转换成对象（只写入投影内的字段）
+     * @param row   {@link Row}
+     * @return
+     */
+    public T decode(Row row) {
+        return codec.decode(row, selected);
+    }
+
+    /**
+     * 多行转换成对象集合
+     * @param rows  {@link Row} 集合
+     * @return
+     */
+    public List<T> decode(List<Row> rows) {
+        List<T> list = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            list.add(codec.decode(row, selected));
+        }
+        return list;
+    }
+
+    /**
+     * 把行的投影字段合并到已有的对象（不可变实体不支持）
+     * @param entity    实体类对象实例
+     * @param row       {@link Row}
+     * @return  传入的对象
+     */
+    public T merge(T entity, Row row) {
+        return codec.decodeInto(entity, row, selected);
+    }
+
+    public EntityCodec<T> getCodec() {
+        return codec;
+    }
+
+}
@@ -0,0 +1,201 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 实体属性的读写器（构建时通过 {@link LambdaMetafactory} 绑定 getter/setter，之后的读写不再走反射）
+ */
+@Slf4j
+public final class PropertyAccessor {
+
+    /**对应的字段**/
+    private final Field field;
+    /**读取**/
+    private final Function<Object, Object> getter;
+    /**写入**/
+    private final BiConsumer<Object, Object> setter;
+
+    private PropertyAccessor(Field field, Function<Object, Object> getter, BiConsumer<Object, Object> setter) {
+        this.field = field;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * 构建字段的读写器（优先使用 getter/setter，没有的话退化为 setAccessible 一次的 {@link Field}）
+     * @param field {@link Field}
+     * @return
+     */
+    public static PropertyAccessor of(Field field) {
+        Class<?> clazz = field.getDeclaringClass();
+        Function<Object, Object> getter = null;
+        BiConsumer<Object, Object> setter = null;
+        try {
+            Method method = findGetter(clazz, field);
+            if (method != null) {
+                getter = buildGetter(method);
+            }
+        } catch (Throwable e) {
+            log.debug("getter绑定失败，退化为字段读取：{}.{}", clazz.getName(), field.getName());
+        }
+        try {
+            Method method = findSetter(clazz, field);
+            if (method != null && !Modifier.isFinal(field.getModifiers())) {
+                setter = buildSetter(method);
+            }
+        } catch (Throwable e) {
+            log.debug("setter绑定失败，退化为字段写入：{}.{}", clazz.getName(), field.getName());
+        }
+        if (getter == null || setter == null) {
+            field.setAccessible(true);
+            if (getter == null) {
+                getter = obj -> {
+                    try {
+                        return field.get(obj);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+            if (setter == null) {
+                setter = (obj, value) -> {
+                    try {
+                        field.set(obj, value);
+                    } catch (IllegalAccessException e) {
+                        throw new IllegalStateException(e);
+                    }
+                };
+            }
+        }
+        return new PropertyAccessor(field, getter, setter);
+    }
+
+    /**
+     * 读取属性值
+     * @param obj   实体类对象实例
+     * @return
+     */
+    public Object get(Object obj) {
+        return getter.apply(obj);
+    }
+
+    /**
+     * 写入属性值
+     * @param obj     实体类对象实例
+     * @param value   属性值（类型需要和字段一致）
+     */
+    public void set(Object obj, Object value) {
+        setter.accept(obj, value);
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> buildGetter(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle,
+                MethodType.methodType(wrap(method.getReturnType()), method.getDeclaringClass()));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> buildSetter(Method method) throws Throwable {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = lookup.unreflect(method);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle,
+                MethodType.methodType(void.class, method.getDeclaringClass(), wrap(method.getParameterTypes()[0])));
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    /**
+     * 查找 getter（getXxx，基本类型 boolean 为 isXxx，record 为 xxx()）
+     */
+    private static Method findGetter(Class<?> clazz, Field field) {
+        String suffix = capitalize(field.getName());
+        Method method = findMethod(clazz, "get" + suffix);
+        if (method == null && field.getType() == boolean.class) {
+            method = findMethod(clazz, "is" + suffix);
+        }
+        if (method == null) {
+            method = findMethod(clazz, field.getName());
+        }
+        if (method != null && method.getReturnType() == field.getType()) {
+            return method;
+        }
+        return null;
+    }
+
+    /**
+     * 查找 setter（setXxx）
+     */
+    private static Method findSetter(Class<?> clazz, Field field) {
+        Method method = findMethod(clazz, "set" + capitalize(field.getName()), field.getType());
+        if (method != null && !Modifier.isStatic(method.getModifiers())) {
+            return method;
+        }
+        return null;
+    }
+
+    private static Method findMethod(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        try {
+            Method method = clazz.getMethod(name, parameterTypes);
+            return Modifier.isPublic(clazz.getModifiers()) ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * 基本类型转成包装类型
+     */
+    static Class<?> wrap(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return type;
+        }
+        if (type == int.class) {
+            return Integer.class;
+        } else if (type == long.class) {
+            return Long.class;
+        } else if (type == double.class) {
+            return Double.class;
+        } else if (type == boolean.class) {
+            return Boolean.class;
+        } else if (type == float.class) {
+            return Float.class;
+        } else if (type == short.class) {
+            return Short.class;
+        } else if (type == byte.class) {
+            return Byte.class;
+        } else if (type == char.class) {
+            return Character.class;
+        }
+        return Void.class;
+    }
+
+}
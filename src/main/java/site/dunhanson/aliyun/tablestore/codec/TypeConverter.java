@@ -0,0 +1,26 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 字段类型与 ots 列值的转换器（需要线程安全，构建编解码器时按字段解析一次，之后直接调用）
+ */
+public interface TypeConverter<T> {
+
+    /**
+     * 字段值转换成 {@link ColumnValue}
+     * @param value     字段值（不为空）
+     * @return  返回null表示不写入
+     */
+    ColumnValue toColumnValue(T value);
+
+    /**
+     * ots 读出的值转换成字段值
+     * @param value     ots 读出的值（String/Long/Double/Boolean/byte[]，不为空）
+     * @return  返回null表示不写入字段
+     */
+    T fromColumnValue(Object value);
+
+}
@@ -0,0 +1,98 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alicloud.openservices.tablestore.model.ColumnValue;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 类型转换器的注册表（内置 基本类型/Date/LocalDateTime/LocalDate/BigDecimal/byte[]/枚举，可注册自定义转换器）
+ */
+public final class TypeConverters {
+
+    /**类型 -> 转换器**/
+    private static final Map<Class<?>, TypeConverter<?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    static {
+        register(String.class, of(ColumnValue::fromString, ValueCoercions::toStringValue));
+        register(Integer.class, of(value -> ColumnValue.fromLong(value), ValueCoercions::toInteger));
+        register(Long.class, of(ColumnValue::fromLong, ValueCoercions::toLong));
+        register(Double.class, of(ColumnValue::fromDouble, ValueCoercions::toDouble));
+        register(Boolean.class, of(ColumnValue::fromBoolean, ValueCoercions::toBoolean));
+        register(Date.class, of(value -> ColumnValue.fromString(ValueCoercions.formatDate(value)), ValueCoercions::toDate));
+        register(LocalDateTime.class, of(value -> ColumnValue.fromString(ValueCoercions.DATE_TIME_FORMATTER.format(value)), ValueCoercions::toLocalDateTime));
+        register(LocalDate.class, of(value -> ColumnValue.fromString(value.toString()), ValueCoercions::toLocalDate));
+        register(BigDecimal.class, of(value -> ColumnValue.fromString(value.toPlainString()), ValueCoercions::toBigDecimal));
+        register(byte[].class, of(ColumnValue::fromBinary, ValueCoercions::toBytes));
+    }
+
+    private TypeConverters() {
+
+    }
+
+    /**
+     * 注册转换器（需要在对应实体类第一次使用前注册，已经构建的编解码器不会更新）
+     * @param type          字段类型
+     * @param converter     转换器
+     * @param <T>
+     */
+    public static <T> void register(Class<T> type, TypeConverter<T> converter) {
+        CONVERTERS.put(PropertyAccessor.wrap(type), converter);
+    }
+
+    /**
+     * 用两个函数构造转换器
+     * @param writer    字段值 -> {@link ColumnValue}
+     * @param reader    ots 读出的值 -> 字段值
+     * @param <T>
+     * @return
+     */
+    public static <T> TypeConverter<T> of(Function<T, ColumnValue> writer, Function<Object, T> reader) {
+        return new TypeConverter<T>() {
+            @Override
+            public ColumnValue toColumnValue(T value) {
+                return writer.apply(value);
+            }
+
+            @Override
+            public T fromColumnValue(Object value) {
+                return reader.apply(value);
+            }
+        };
+    }
+
+    /**
+     * 查找字段类型的转换器（精确匹配 -> 枚举 -> Date的子类）
+     * @param type  字段类型
+     * @return  没有对应的转换器时返回null
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static TypeConverter<Object> find(Class<?> type) {
+        type = PropertyAccessor.wrap(type);
+        TypeConverter<?> converter = CONVERTERS.get(type);
+        if (converter == null && type.isEnum()) {
+            converter = enumConverter((Class<? extends Enum>) type);
+        } else if (converter == null && Date.class.isAssignableFrom(type)) {
+            converter = CONVERTERS.get(Date.class);
+        }
+        return (TypeConverter<Object>) converter;
+    }
+
+    /**
+     * 枚举按名称存储
+     */
+    private static <E extends Enum<E>> TypeConverter<E> enumConverter(Class<E> type) {
+        return of(value -> ColumnValue.fromString(value.name()), value -> {
+            String name = ValueCoercions.toStringValue(value).trim();
+            return name.isEmpty() ? null : Enum.valueOf(type, name);
+        });
+    }
+
+}
@@ -0,0 +1,134 @@
+package site.dunhanson.aliyun.tablestore.codec;
+
+import com.alibaba.fastjson.util.TypeUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description ots 读出的值（String/Long/Double/Boolean/byte[]）到字段类型的转换，类型一致时直接返回不做任何拷贝
+ */
+final class ValueCoercions {
+
+    /**日期格式（DateTimeFormatter 线程安全，全局一个即可）**/
+    static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**日期格式的长度**/
+    private static final int DATE_TIME_LENGTH = 19;
+
+    private ValueCoercions() {
+
+    }
+
+    static String toStringValue(Object value) {
+        if (value instanceof String) {
+            return (String) value;
+        } else if (value instanceof byte[]) {
+            return new String((byte[]) value, StandardCharsets.UTF_8);
+        }
+        return value.toString();
+    }
+
+    static Long toLong(Object value) {
+        if (value instanceof Long) {
+            return (Long) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        String text = toStringValue(value).trim();
+        return text.isEmpty() ? null : Long.valueOf(text);
+    }
+
+    static Integer toInteger(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        String text = toStringValue(value).trim();
+        return text.isEmpty() ? null : Integer.valueOf(text);
+    }
+
+    static Double toDouble(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = toStringValue(value).trim();
+        return text.isEmpty() ? null : Double.valueOf(text);
+    }
+
+    static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).longValue() != 0;
+        }
+        String text = toStringValue(value).trim();
+        return text.isEmpty() ? null : "true".equalsIgnoreCase(text) || "1".equals(text);
+    }
+
+    static Date toDate(Object value) {
+        if (value instanceof Long) {
+            return new Date((Long) value);
+        }
+        String text = toStringValue(value);
+        if (text.length() == DATE_TIME_LENGTH && text.charAt(10) == ' ') {
+            return Date.from(LocalDateTime.parse(text, DATE_TIME_FORMATTER).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        return TypeUtils.castToDate(text);
+    }
+
+    static String formatDate(Date date) {
+        return DATE_TIME_FORMATTER.format(LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault()));
+    }
+
+    static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof Long) {
+            return LocalDateTime.ofInstant(new Date((Long) value).toInstant(), ZoneId.systemDefault());
+        }
+        String text = toStringValue(value).trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        return text.length() == DATE_TIME_LENGTH && text.charAt(10) == ' ' ? LocalDateTime.parse(text, DATE_TIME_FORMATTER) : LocalDateTime.parse(text);
+    }
+
+    static LocalDate toLocalDate(Object value) {
+        if (value instanceof Long) {
+            return toLocalDateTime(value).toLocalDate();
+        }
+        String text = toStringValue(value).trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        return text.length() > 10 ? LocalDate.parse(text.substring(0, 10)) : LocalDate.parse(text);
+    }
+
+    static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Long) {
+            return BigDecimal.valueOf((Long) value);
+        } else if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        }
+        String text = toStringValue(value).trim();
+        return text.isEmpty() ? null : new BigDecimal(text);
+    }
+
+    static byte[] toBytes(Object value) {
+        if (value instanceof byte[]) {
+            return (byte[]) value;
+        }
+        return toStringValue(value).getBytes(StandardCharsets.UTF_8);
+    }
+
+}
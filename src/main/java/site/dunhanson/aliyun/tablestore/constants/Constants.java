@@ -16,7 +16,20 @@ public interface Constants {
     String SECONDARY_INDEX = "secondaryIndex";
     String INDEX_NAME = "indexName";
     String IGNORE_COLUMN = "ignoreColumn";
+    String NESTED_COLUMN = "nestedColumn";
+    String LAZY_NESTED = "lazyNested";
+    String COMPRESS_COLUMN = "compressColumn";
+    String COMPRESSION = "compression";
+    String CHUNK_COLUMN = "chunkColumn";
+    String VERSION_COLUMN = "versionColumn";
     String LIMIT = "limit";
+    String PARALLELISM = "parallelism";
     String UNDERLINE = "_";
+    /**BatchWriteRow 每批最多的行数**/
+    int BATCH_WRITE_MAX_ROWS = 200;
+    /**BatchGetRow 每批最多的行数**/
+    int BATCH_GET_MAX_ROWS = 100;
+    /**批量请求最多的字节数（ots 限制 4MB，留出请求头的余量）**/
+    long BATCH_MAX_BYTES = 4 * 1024 * 1024 - 64 * 1024;
     
 }
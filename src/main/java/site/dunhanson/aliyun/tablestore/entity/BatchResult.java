@@ -0,0 +1,111 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import lombok.Value;
+import site.dunhanson.aliyun.tablestore.utils.RetryPolicy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 批量写入的结果（每行一个状态，和输入的顺序一致）
+ */
+@Value
+public class BatchResult {
+    /**每行的状态（下标和输入一致）**/
+    List<RowStatus> rows;
+
+    public BatchResult(List<RowStatus> rows) {
+        this.rows = Collections.unmodifiableList(rows);
+    }
+
+    /**
+     * 成功的行数
+     * @return
+     */
+    public int getSucceedCount() {
+        int count = 0;
+        for (RowStatus row : rows) {
+            if (row.isSucceed()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 是否全部成功
+     * @return
+     */
+    public boolean isAllSucceed() {
+        return getSucceedCount() == rows.size();
+    }
+
+    /**
+     * 失败的行
+     * @return
+     */
+    public List<RowStatus> getFailedRows() {
+        List<RowStatus> list = new ArrayList<>();
+        for (RowStatus row : rows) {
+            if (!row.isSucceed()) {
+                list.add(row);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 消耗的写CU合计
+     * @return
+     */
+    public int getWriteCapacityUnit() {
+        int sum = 0;
+        for (RowStatus row : rows) {
+            sum += row.getWriteCapacityUnit();
+        }
+        return sum;
+    }
+
+    /**
+     * 单行的状态
+     */
+    @Value
+    public static class RowStatus {
+        /**输入的下标**/
+        int index;
+        /**表名**/
+        String tableName;
+        /**主键**/
+        PrimaryKey primaryKey;
+        /**是否成功**/
+        boolean succeed;
+        /**错误码（成功时为空）**/
+        String errorCode;
+        /**错误信息（成功时为空）**/
+        String errorMessage;
+        /**消耗的写CU**/
+        int writeCapacityUnit;
+        /**尝试的次数**/
+        int attempts;
+
+        /**
+         * 是否条件检查失败（行存在性不符合期望，或者版本和读取时不一致）
+         * @return
+         */
+        public boolean isConflict() {
+            return "OTSConditionCheckFail".equals(errorCode);
+        }
+
+        /**
+         * 是否结果不确定（超时、网络错误等，写入可能已经生效，不会重试；条件更新需要重新读取确认，不能当作冲突）
+         * @return
+         */
+        public boolean isUnknownOutcome() {
+            return RetryPolicy.isAmbiguous(errorCode);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
+import lombok.Value;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description TableStore表的元数据（不可变，由 TableMetadataRegistry 在启动时构建）
+ */
+@Value
+public class TableMetadata {
+    /**别名**/
+    String alias;
+    /**表名**/
+    String tableName;
+    /**主键（按配置的顺序）**/
+    List<KeyColumn> primaryKeys;
+    /**二级索引**/
+    List<SecondaryIndex> secondaryIndexes;
+    /**多元索引名**/
+    List<String> indexNames;
+    /**忽略字段**/
+    Set<String> ignoreColumns;
+    /**嵌套列（json字符串存储）**/
+    Set<String> nestedColumns;
+    /**嵌套列是否延迟解析**/
+    boolean lazyNested;
+    /**压缩存储的列**/
+    Set<String> compressColumns;
+    /**压缩算法（deflate/gzip）**/
+    String compression;
+    /**超长时分块存储的列**/
+    Set<String> chunkColumns;
+    /**乐观锁的版本列（为空表示不检查版本）**/
+    String versionColumn;
+    /**默认分页大小**/
+    Integer limit;
+
+    /**
+     * 主键列
+     */
+    @Value
+    public static class KeyColumn {
+        /**列名**/
+        String name;
+        /**主键类型**/
+        PrimaryKeyType type;
+    }
+
+    /**
+     * 二级索引（命名规范：表名_index2_索引列）
+     */
+    @Value
+    public static class SecondaryIndex {
+        /**索引表名**/
+        String indexName;
+        /**索引列**/
+        String column;
+    }
+}
@@ -1,6 +1,7 @@
 package site.dunhanson.aliyun.tablestore.entity.bidi;
 
 import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.NestedColumn;
 
 import java.util.List;
 
@@ -243,6 +244,7 @@ public class Document {
     /**
      * 子标段集合
      */
+    @NestedColumn
     private List<SubDocument> subDocsJson;
 
 }
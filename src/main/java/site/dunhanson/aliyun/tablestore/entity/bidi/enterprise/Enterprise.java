@@ -2,6 +2,7 @@ package site.dunhanson.aliyun.tablestore.entity.bidi.enterprise;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
+import site.dunhanson.aliyun.tablestore.annotation.NestedColumn;
 import java.util.List;
 /**
  * @author jiangzf
@@ -149,119 +150,147 @@ public class Enterprise {
 
 
     /*主要人员*/
+    @NestedColumn
     private List<EnterpriseProfilePrimaryStaffItem> staffs;
     /*股东总数*/
     private Long mainHoldersNumber;
     /*主要股东*/
+    @NestedColumn
     private List<EnterpriseProfileShareHolderInfoItem> holders;
     /*变更总数*/
     private Long changeInfoNumber;
     /*变更记录*/
+    @NestedColumn
     private List<EnterpriseProfileChangeInfoItem> changeInfo;
     /*分支机构总数*/
     private Integer branchNumber;
     /*分支机构*/
+    @NestedColumn
     private List<EnterpriseProfileBranchItem> branches;
     /*专利数量*/
     private Integer patentsNumber;
     /*专利*/
+    @NestedColumn
     private List<EnterpriseProfilePatentItem> patents;
     //著作权数量
     private Integer copyRegWorksNumber;
     /*著作权*/
+    @NestedColumn
     private List<EnterpriseProfileCopyrightOfWorksItem> copyRegWorks;
     /*经营异常数量*/
     private Integer abnormalNumber;
     /*经营异常*/
+    @NestedColumn
     private List<EnterpriseProfileAbnormalItem> abnormals;
     /*行政处罚数量*/
     private Integer punishmentInfoNumber;
     /*行政处罚*/
+    @NestedColumn
     private List<EnterpriseProfilePunishmentInfoItem> punishmentInfo;
     /*行政处罚数量--信用中国(新版)*/
     private Integer creditChinaV2Number;
     /*行政处罚--信用中国(新版)*/
+    @NestedColumn
     private List<EnterpriseProfileCreditChinaItem> creditChinaV2;
     /*严重违法数量*/
     private Integer illegalinfoNumber;
     /*严重违法*/
+    @NestedColumn
     private List<EnterpriseProfileIllegalInfoItem> illegalinfo;
     /*股权出质数量*/
     private Integer equityInfoNumber;
     /*股权出质*/
+    @NestedColumn
     private List<EnterpriseProfileEquityInfoItem> equityInfo;
     /*动产抵押数量*/
     private Integer mortgageInfoNumber;
     /*动产抵押*/
+    @NestedColumn
     private List<EnterpriseProfileMortgageInfoItem> mortgageInfo;
     /*欠税公告数量*/
     private Integer ownTaxNumber;
     /*欠税公告*/
+    @NestedColumn
     private List<EnterpriseProfileOwnTaxItem> ownTax;
     /*法律诉讼数量*/
     private Integer lawSuitNumber;
     /*法律诉讼*/
+    @NestedColumn
     private List<EnterpriseProfileLawSuitItem> lawSuit;
     /*法院公告数量*/
     private Integer courtAnnouncementNumber;
     /*法院公告*/
+    @NestedColumn
     private List<EnterpriseProfileCourtAnnouncementItem> courtAnnouncement;
     /*失信人数量*/
     private Integer dishonestNumber;
     /*失信人*/
+    @NestedColumn
     private List<EnterpriseProfileDishonestItem> dishonest;
     /*被执行人数量*/
     private Integer zhixinginfoNumber;
     /*被执行人*/
+    @NestedColumn
     private List<EnterpriseProfileZhixingInfoItem> zhixinginfo;
     /*资质数量*/
     private Integer qualificationsNumber;
     /*资质更新时间(STRING|yyyy-mm-dd)*/
     private String qualificationsUpdateTime;
     /*资质列表*/
+    @NestedColumn
     private List<EnterpriseProfileQualificationItem> qualifications;
     /*工程人员数量*/
     private Integer registeredStaffsNumber;
     /*工程人员*/
+    @NestedColumn
     private List<EnterpriseProfileRegisteredStaffItem> registeredStaffs;
     /*工程项目数量*/
     private Integer quaProjectsNumber;
     /*工程项目*/
+    @NestedColumn
     private List<EnterpriseProfileQualificationProjectItem> quaProjects;
     /*不良行为数量*/
     private Integer badCreditBehaviorsNumber;
     /*不良行为*/
+    @NestedColumn
     private List<EnterpriseProfileBadCreditBehaviorItem> badCreditBehaviors;
     /*良好行为数量*/
     private Integer goodCreditBehaviorsNumber;
     /*良好行为*/
+    @NestedColumn
     private List<EnterpriseProfileGoodCreditBehaviorItem> goodCreditBehaviors;
     /*黑名单记录数量*/
     private Integer creditBlackRecordsNumber;
     /*黑名单记录*/
+    @NestedColumn
     private List<EnterpriseProfileCreditBlackRecordItem> creditBlackRecords;
     /*变更记录数量*/
     private Integer quaChangeLogsNumber;
     /*变更记录*/
+    @NestedColumn
     private List<EnterpriseProfileQuaChangeLogItem> quaChangeLogs;
     /*信用中国数据更新时间(STRING|yyyy-mm-dd),*/
     private String creditInfoUpdateTime;
     /*行政许可数量*/
     private Integer adminLicensesNumber;
     /*行政许可*/
+    @NestedColumn
     private List<EnterpriseProfileCreditChinaAdminLicenseItem> adminLicenses;
     /*行政处罚数量*/
     private Integer adminPenaltiesNumber;
     /*行政处罚*/
+    @NestedColumn
     private List<EnterpriseProfileCreditChinaAdminPenaltieItem> adminPenalties;
     /*守信红名单数量*/
     private Integer creditRedRecordNumber;
     /*守信红名单*/
+    @NestedColumn
     private List<EnterpriseProfileCreditChinaRedRecordItem> creditRedRecord;
     /*招标代理id，百度那些已经收录的使用 agent_detail_info.id 新增的请使用 bidiId*/
     private Long zbdlId;
     /*旧的以 agent_contact_person 为准， 新增以 agent_legal_person 为准*/
     private String contactPerson;
     /*合作案例*/
+    @NestedColumn
     private List<AgentEventInfo> agentEventInfos;
 }
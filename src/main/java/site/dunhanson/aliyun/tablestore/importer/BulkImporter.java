@@ -0,0 +1,338 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+import com.alibaba.fastjson.JSON;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.model.Condition;
+import com.alicloud.openservices.tablestore.model.RowChange;
+import com.alicloud.openservices.tablestore.model.RowExistenceExpectation;
+import com.alicloud.openservices.tablestore.model.RowPutChange;
+import com.google.common.util.concurrent.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.utils.BatchRowWriter;
+import site.dunhanson.aliyun.tablestore.utils.Store;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 从 JSONL/CSV 文件批量导入（NIO 分块读取，ForkJoinPool 并发解析和写入，按写CU限速，定期保存进度用于断点续传）
+ */
+@Slf4j
+public class BulkImporter<T> {
+
+    /**客户端**/
+    private final SyncClientInterface client;
+    /**编解码器**/
+    private final EntityCodec<T> codec;
+    /**配置**/
+    private final ImportConfig config;
+
+    /**
+     * 使用默认配置和 {@link Store} 的客户端
+     * @param clazz     实体类
+     */
+    public BulkImporter(Class<T> clazz) {
+        this(clazz, ImportConfig.builder().build());
+    }
+
+    /**
+     * 使用 {@link Store} 的客户端
+     * @param clazz     实体类
+     * @param config    配置
+     */
+    public BulkImporter(Class<T> clazz, ImportConfig config) {
+        this(Store.getInstance().getSyncClient(), clazz, config);
+    }
+
+    /**
+     * @param client    客户端
+     * @param clazz     实体类
+     * @param config    配置
+     */
+    public BulkImporter(SyncClientInterface client, Class<T> clazz, ImportConfig config) {
+        this.client = client;
+        this.codec = EntityCodecs.of(clazz);
+        this.config = config;
+    }
+
+    /**
+     * 导入文件（有进度文件时从上次的位置继续，失败的原始行追加到 文件名.errors）
+     * @param file  JSONL/CSV 文件
+     * @return
+     */
+    public ImportResult importFile(Path file) {
+        ImportFormat format = config.getFormat() != null ? config.getFormat() : ImportFormat.of(file.getFileName().toString());
+        Path checkpointFile = file.resolveSibling(file.getFileName() + ".checkpoint");
+        Progress progress = config.isCheckpoint() ? Progress.load(checkpointFile) : new Progress();
+        RateLimiter rateLimiter = config.getMaxWriteCapacityUnitPerSecond() > 0 ? RateLimiter.create(config.getMaxWriteCapacityUnitPerSecond()) : null;
+        ErrorLog errorLog = new ErrorLog(file.resolveSibling(file.getFileName() + ".errors"));
+        ForkJoinPool pool = new ForkJoinPool(config.getParallelism());
+        int maxInFlight = config.getParallelism() * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // 1、CSV 的表头（第一次导入时跳过表头）
+            List<String> header = null;
+            if (format == ImportFormat.CSV) {
+                LineReader headerReader = new LineReader(channel, 0);
+                byte[] line = headerReader.readLine();
+                if (line == null) {
+                    return progress.toResult();
+                }
+                header = CsvParser.parse(new String(line, StandardCharsets.UTF_8), config.getCsvDelimiter());
+                if (progress.offset == 0) {
+                    progress.offset = headerReader.getPosition();
+                }
+            }
+            if (progress.offset > 0) {
+                log.info("从断点继续导入：{}，位置{}，已导入{}行", file, progress.offset, progress.lines);
+            }
+
+            // 2、分块读取，提交到线程池解析和写入（正在处理的块数有上限，避免读取过快占满内存）
+            LineReader reader = new LineReader(channel, progress.offset);
+            List<String> columns = header;
+            while (progress.error == null) {
+                Chunk chunk = new Chunk(reader.getPosition());
+                byte[] line;
+                while (chunk.lines.size() < config.getChunkRows() && (line = reader.readLine()) != null) {
+                    chunk.lines.add(line);
+                }
+                if (chunk.lines.isEmpty()) {
+                    break;
+                }
+                chunk.end = reader.getPosition();
+                inFlight.acquireUninterruptibly();
+                pool.execute(() -> {
+                    try {
+                        process(chunk, format, columns, rateLimiter, errorLog);
+                        progress.complete(chunk, config.isCheckpoint() ? checkpointFile : null, config.getCheckpointIntervalMillis());
+                    } catch (Throwable e) {
+                        progress.error = e;
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            inFlight.acquireUninterruptibly(maxInFlight);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            pool.shutdown();
+            errorLog.close();
+        }
+
+        // 3、保存最终的进度
+        if (config.isCheckpoint()) {
+            progress.save(checkpointFile);
+        }
+        if (progress.error != null) {
+            throw new IllegalStateException("导入中断（已保存进度，可以重新导入继续）：" + file, progress.error);
+        }
+        ImportResult result = progress.toResult();
+        log.info("导入完成：{}，{}", file, result);
+        return result;
+    }
+
+    /**
+     * 解析一块并写入
+     */
+    private void process(Chunk chunk, ImportFormat format, List<String> header, RateLimiter rateLimiter, ErrorLog errorLog) {
+        // 1、解析成实体再编码成行（和 insert 的列映射一致）
+        List<RowChange> rowChanges = new ArrayList<>(chunk.lines.size());
+        List<byte[]> sources = new ArrayList<>(chunk.lines.size());
+        for (byte[] line : chunk.lines) {
+            String text = new String(line, StandardCharsets.UTF_8);
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            try {
+                T entity = codec.decode(toRecord(text, format, header));
+                RowPutChange rowPutChange = codec.toRowPutChange(entity);
+                if (config.isCreateOnly()) {
+                    rowPutChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_NOT_EXIST));
+                }
+                rowChanges.add(rowPutChange);
+                sources.add(line);
+            } catch (RuntimeException e) {
+                chunk.parseErrors++;
+                errorLog.write("ParseError", e.getMessage(), text);
+            }
+        }
+        if (rowChanges.isEmpty()) {
+            return;
+        }
+
+        // 2、写入（按 200行/4MB 切分，可重试的失败行单独重试）
+        BatchResult result = BatchRowWriter.write(client, rowChanges);
+        for (BatchResult.RowStatus status : result.getRows()) {
+            if (status.isSucceed()) {
+                chunk.succeeded++;
+            } else {
+                chunk.failed++;
+                errorLog.write(status.getErrorCode(), status.getErrorMessage(), new String(sources.get(status.getIndex()), StandardCharsets.UTF_8));
+            }
+        }
+        chunk.writeCapacityUnit = result.getWriteCapacityUnit();
+
+        // 3、按消耗的写CU限速
+        if (rateLimiter != null && chunk.writeCapacityUnit > 0) {
+            rateLimiter.acquire((int) chunk.writeCapacityUnit);
+        }
+    }
+
+    /**
+     * 一行转换成 列名或者字段名 -> 值
+     */
+    private Map<String, ?> toRecord(String text, ImportFormat format, List<String> header) {
+        if (format == ImportFormat.JSONL) {
+            return JSON.parseObject(text);
+        }
+        List<String> fields = CsvParser.parse(text, config.getCsvDelimiter());
+        Map<String, String> record = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < header.size() && i < fields.size(); i++) {
+            if (!fields.get(i).isEmpty()) {     // 空字段不写入
+                record.put(header.get(i), fields.get(i));
+            }
+        }
+        return record;
+    }
+
+    /**
+     * 一块连续的行
+     */
+    private static final class Chunk {
+        private final long start;
+        private final List<byte[]> lines = new ArrayList<>();
+        private long end;
+        private long succeeded;
+        private long failed;
+        private long parseErrors;
+        private long writeCapacityUnit;
+
+        private Chunk(long start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * 导入进度（只在连续的块都完成后才前进，保证断点之前的行都已经处理）
+     */
+    private static final class Progress {
+        private long offset;
+        private long lines;
+        private long succeeded;
+        private long failed;
+        private long parseErrors;
+        private long writeCapacityUnit;
+        /**完成但前面还有没完成的块（开始位置 -> 块）**/
+        private final Map<Long, Chunk> completed = new HashMap<>();
+        private long lastSaveMillis = System.currentTimeMillis();
+        private volatile Throwable error;
+
+        private synchronized void complete(Chunk chunk, Path checkpointFile, long intervalMillis) {
+            completed.put(chunk.start, chunk);
+            Chunk next;
+            while ((next = completed.remove(offset)) != null) {
+                offset = next.end;
+                lines += next.lines.size();
+                succeeded += next.succeeded;
+                failed += next.failed;
+                parseErrors += next.parseErrors;
+                writeCapacityUnit += next.writeCapacityUnit;
+            }
+            if (checkpointFile != null && System.currentTimeMillis() - lastSaveMillis >= intervalMillis) {
+                save(checkpointFile);
+                lastSaveMillis = System.currentTimeMillis();
+                log.info("导入进度：{}", toResult());
+            }
+        }
+
+        private synchronized void save(Path checkpointFile) {
+            Properties properties = new Properties();
+            properties.setProperty("offset", String.valueOf(offset));
+            properties.setProperty("lines", String.valueOf(lines));
+            properties.setProperty("succeeded", String.valueOf(succeeded));
+            properties.setProperty("failed", String.valueOf(failed));
+            properties.setProperty("parseErrors", String.valueOf(parseErrors));
+            properties.setProperty("writeCapacityUnit", String.valueOf(writeCapacityUnit));
+            Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    properties.store(out, "BulkImporter checkpoint");
+                }
+                Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                log.warn("导入进度保存失败：{}，{}", checkpointFile, e.getMessage());
+            }
+        }
+
+        private static Progress load(Path checkpointFile) {
+            Progress progress = new Progress();
+            if (Files.exists(checkpointFile)) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(checkpointFile)) {
+                    properties.load(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                progress.offset = Long.parseLong(properties.getProperty("offset", "0"));
+                progress.lines = Long.parseLong(properties.getProperty("lines", "0"));
+                progress.succeeded = Long.parseLong(properties.getProperty("succeeded", "0"));
+                progress.failed = Long.parseLong(properties.getProperty("failed", "0"));
+                progress.parseErrors = Long.parseLong(properties.getProperty("parseErrors", "0"));
+                progress.writeCapacityUnit = Long.parseLong(properties.getProperty("writeCapacityUnit", "0"));
+            }
+            return progress;
+        }
+
+        private synchronized ImportResult toResult() {
+            return new ImportResult(lines, succeeded, failed, parseErrors, writeCapacityUnit, offset);
+        }
+    }
+
+    /**
+     * 失败的原始行（第一次写入时才创建文件）
+     */
+    private static final class ErrorLog {
+        private final Path path;
+        private Writer writer;
+
+        private ErrorLog(Path path) {
+            this.path = path;
+        }
+
+        private synchronized void write(String errorCode, String errorMessage, String line) {
+            try {
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+                writer.write(errorCode + "\t" + String.valueOf(errorMessage).replace('\n', ' ') + "\t" + line + "\n");
+            } catch (IOException e) {
+                log.warn("失败行记录失败：{}，{}", path, e.getMessage());
+            }
+        }
+
+        private synchronized void close() {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    log.warn("失败行文件关闭失败：{}，{}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description CSV 单行的解析（支持双引号包裹和 "" 转义，不支持字段内换行）
+ */
+final class CsvParser {
+
+    private CsvParser() {
+
+    }
+
+    /**
+     * 解析一行
+     * @param line          一行文本
+     * @param delimiter     分隔符
+     * @return  字段集合（空字段为空字符串）
+     */
+    static List<String> parse(String line, char delimiter) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {     // "" 转义
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+}
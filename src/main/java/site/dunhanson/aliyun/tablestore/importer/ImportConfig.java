@@ -0,0 +1,38 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description {@link BulkImporter} 的配置
+ */
+@Getter
+@Builder
+@ToString
+public class ImportConfig {
+    /**文件格式（为空时按后缀判断）**/
+    private ImportFormat format;
+    /**CSV 的分隔符**/
+    @Builder.Default
+    private char csvDelimiter = ',';
+    /**解析和写入的并发数**/
+    @Builder.Default
+    private int parallelism = 4;
+    /**每个任务的行数（写入时再按 200行/4MB 切分）**/
+    @Builder.Default
+    private int chunkRows = Constants.BATCH_WRITE_MAX_ROWS;
+    /**每秒最多消耗的写CU（0为不限制）**/
+    private double maxWriteCapacityUnitPerSecond;
+    /**是否只新增（已经存在的行不覆盖，记录为失败）**/
+    private boolean createOnly;
+    /**是否记录进度（进度文件为 导入文件名.checkpoint，重新导入时从上次的位置继续）**/
+    @Builder.Default
+    private boolean checkpoint = true;
+    /**进度文件的保存间隔（毫秒）**/
+    @Builder.Default
+    private long checkpointIntervalMillis = 5000;
+}
@@ -0,0 +1,22 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 导入文件的格式
+ */
+public enum ImportFormat {
+    /**每行一个 json 对象**/
+    JSONL,
+    /**第一行是表头（列名或者字段名），不支持字段内换行**/
+    CSV;
+
+    /**
+     * 根据文件后缀判断（.csv 为 CSV，其他为 JSONL）
+     * @param fileName  文件名
+     * @return
+     */
+    public static ImportFormat of(String fileName) {
+        return fileName.toLowerCase().endsWith(".csv") ? CSV : JSONL;
+    }
+}
@@ -0,0 +1,24 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+import lombok.Value;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 导入的结果（从断点继续时包含之前的进度）
+ */
+@Value
+public class ImportResult {
+    /**读取的行数（不含表头）**/
+    long lines;
+    /**写入成功的行数**/
+    long succeeded;
+    /**写入失败的行数（原始行记录在 导入文件名.errors）**/
+    long failed;
+    /**解析失败的行数（原始行记录在 导入文件名.errors）**/
+    long parseErrors;
+    /**消耗的写CU**/
+    long writeCapacityUnit;
+    /**已经导入到的文件位置（字节）**/
+    long offset;
+}
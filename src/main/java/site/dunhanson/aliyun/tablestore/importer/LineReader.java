@@ -0,0 +1,86 @@
+package site.dunhanson.aliyun.tablestore.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 按行读取文件的原始字节（NIO 分块读取，记录每行结束的字节位置，用于断点续传）
+ */
+final class LineReader {
+
+    /**文件**/
+    private final FileChannel channel;
+    /**读缓冲**/
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024 * 1024);
+    /**超过缓冲区的长行**/
+    private final ByteArrayOutputStream overflow = new ByteArrayOutputStream();
+    /**下一行开始的字节位置**/
+    private long position;
+
+    /**
+     * @param channel   文件
+     * @param position  开始读取的字节位置（需要是行首）
+     */
+    LineReader(FileChannel channel, long position) throws IOException {
+        this.channel = channel;
+        this.position = position;
+        channel.position(position);
+        buffer.flip();
+    }
+
+    /**
+     * 读取一行（不含换行符，去掉行尾的 \r）
+     * @return  文件结束时返回null
+     */
+    byte[] readLine() throws IOException {
+        overflow.reset();
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                buffer.clear();
+                int read = channel.read(buffer);
+                buffer.flip();
+                if (read < 0) {     // 最后一行没有换行符
+                    if (overflow.size() == 0) {
+                        return null;
+                    }
+                    position += overflow.size();
+                    return trim(overflow.toByteArray());
+                }
+            }
+            int start = buffer.position();
+            int limit = buffer.limit();
+            byte[] array = buffer.array();
+            for (int i = start; i < limit; i++) {
+                if (array[i] == '\n') {
+                    overflow.write(array, start, i - start);
+                    buffer.position(i + 1);
+                    position += overflow.size() + 1;
+                    return trim(overflow.toByteArray());
+                }
+            }
+            overflow.write(array, start, limit - start);
+            buffer.position(limit);
+        }
+    }
+
+    /**
+     * 已经读取的行之后的字节位置
+     * @return
+     */
+    long getPosition() {
+        return position;
+    }
+
+    private static byte[] trim(byte[] line) {
+        if (line.length > 0 && line[line.length - 1] == '\r') {
+            return Arrays.copyOf(line, line.length - 1);
+        }
+        return line;
+    }
+
+}
@@ -0,0 +1,46 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 异步客户端的单例（由 {@link Store} 的 SyncClient 转换，共用连接配置和连接池）
+ */
+@Slf4j
+public class AsyncStore {
+
+    private static volatile AsyncStore instance;
+    private final AsyncClientInterface asyncClient;
+
+    // 不给外部实例化
+    private AsyncStore(AsyncClientInterface asyncClient) {
+        this.asyncClient = asyncClient;
+    }
+
+    /**
+     * 获取对象实例
+     * @return
+     */
+    public static AsyncStore getInstance() {
+        if (instance == null) {
+            synchronized (AsyncStore.class) {
+                if (instance == null) {
+                    instance = new AsyncStore(Store.getInstance().getSyncClient().asAsyncClient());
+                    log.warn("AsyncClient完成初始化");
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 获取 {@link AsyncClientInterface}（请求不占用调用线程，回调在 SDK 的回调线程池执行）
+     * @return
+     */
+    public AsyncClientInterface getAsyncClient() {
+        return asyncClient;
+    }
+
+}
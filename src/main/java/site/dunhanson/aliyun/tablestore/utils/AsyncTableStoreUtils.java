@@ -0,0 +1,439 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.search.SearchQuery;
+import com.alicloud.openservices.tablestore.model.search.SearchRequest;
+import com.alicloud.openservices.tablestore.model.search.SearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.Projection;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+import site.dunhanson.aliyun.tablestore.entity.Page;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description TableStore异步工具类（基于 {@link AsyncStore} 的 AsyncClient，不占用调用线程，和 {@link TableStoreUtils} 使用相同的编解码，结果一致）
+ */
+@Slf4j
+public class AsyncTableStoreUtils {
+
+    /**失败行重试退避的定时器**/
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "async-table-store-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AsyncTableStoreUtils() {
+
+    }
+
+    /**
+     * 新增（如果该记录存在则完成覆盖更新）
+     * @param obj   实体类对象实例
+     * @return  消耗的写CU
+     */
+    public static CompletableFuture<Integer> insert(Object obj) {
+        if (obj == null) {
+            return CompletableFuture.completedFuture(0);
+        }
+        RowPutChange rowPutChange = EntityCodecs.ofEntity(obj).toRowPutChange(obj);
+        FutureCallback<PutRowRequest, PutRowResponse> callback = new FutureCallback<>();
+        client().putRow(new PutRowRequest(rowPutChange), callback);
+        return callback.thenApply(response -> writeCapacityUnit(response.getConsumedCapacity()));
+    }
+
+    /**
+     * 更新不为空的字段（有版本列时检查版本和读取时一致，成功后实体的版本加1）
+     * @param obj   实体类对象实例
+     * @return  消耗的写CU（行不存在或者版本冲突时为0）
+     */
+    public static CompletableFuture<Integer> update(Object obj) {
+        FutureCallback<UpdateRowRequest, UpdateRowResponse> callback = new FutureCallback<>();
+        client().updateRow(new UpdateRowRequest(TableStoreUtils.getRowUpdateChange(obj)), callback);
+        return zeroIfConditionCheckFail(callback.thenApply(response -> writeCapacityUnit(response.getConsumedCapacity())))
+                .thenApply(num -> {
+                    if (num > 0) {
+                        TableStoreUtils.advanceVersion(obj);
+                    }
+                    return num;
+                });
+    }
+
+    /**
+     * 根据主键删除
+     * @param obj   实体类对象实例
+     * @return  消耗的写CU（期望不一致时为0）
+     */
+    public static CompletableFuture<Integer> delete(Object obj) {
+        FutureCallback<DeleteRowRequest, DeleteRowResponse> callback = new FutureCallback<>();
+        client().deleteRow(new DeleteRowRequest(TableStoreUtils.getRowDeleteChange(obj)), callback);
+        return zeroIfConditionCheckFail(callback.thenApply(response -> writeCapacityUnit(response.getConsumedCapacity())));
+    }
+
+    /**
+     * 根据主键获取一行记录（排除 alias.ignoreColumn 配置的字段）
+     * @param entity    实体类对象实例
+     * @param clazz     实体类
+     * @param <T>
+     * @return  不存在时为空
+     */
+    public static <T> CompletableFuture<T> get(T entity, Class<T> clazz) {
+        return get(entity, clazz, null);
+    }
+
+    /**
+     * 根据主键获取一行记录
+     * @param entity          实体类对象实例
+     * @param clazz           实体类
+     * @param columnsToGet   添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
+     * @param <T>
+     * @return  不存在时为空
+     */
+    public static <T> CompletableFuture<T> get(T entity, Class<T> clazz, Collection<String> columnsToGet) {
+        if (entity == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Projection<T> projection = projection(clazz, columnsToGet);
+        return batchGetRows(Collections.singletonList(entity), projection)
+                .thenApply(rows -> rows[0] == null ? null : projection.decode(rows[0]));
+    }
+
+    /**
+     * 通过主键批量获取（排除 alias.ignoreColumn 配置的字段，不存在的行不返回）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<List<T>> batchGetRow(List<T> list, Class<T> clazz) {
+        return batchGetRow(list, clazz, null);
+    }
+
+    /**
+     * 通过主键批量获取（不存在的行不返回）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<List<T>> batchGetRow(List<T> list, Class<T> clazz, Collection<String> columnsToGet) {
+        Projection<T> projection = projection(clazz, columnsToGet);
+        return batchGetRows(list, projection).thenApply(rows -> {
+            List<T> result = new ArrayList<>(rows.length);
+            for (Row row : rows) {
+                if (row != null) {
+                    result.add(projection.decode(row));
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 通过主键批量获取（结果和 list 一一对应，不存在的行为空，排除 alias.ignoreColumn 配置的字段）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<List<T>> batchGetRowAligned(List<T> list, Class<T> clazz) {
+        return batchGetRowAligned(list, clazz, null);
+    }
+
+    /**
+     * 通过主键批量获取（结果和 list 一一对应，不存在的行为空）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<List<T>> batchGetRowAligned(List<T> list, Class<T> clazz, Collection<String> columnsToGet) {
+        Projection<T> projection = projection(clazz, columnsToGet);
+        return batchGetRows(list, projection).thenApply(rows -> {
+            List<T> result = new ArrayList<>(rows.length);
+            for (Row row : rows) {
+                result.add(row == null ? null : projection.decode(row));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 根据多元索引查询（默认查第一个多元索引，并且查全部字段）
+     * @param query      {@link SearchQuery}
+     * @param clazz       实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<Page<T>> search(SearchQuery query, Class<T> clazz) {
+        return search(query, clazz, new ArrayList<>());
+    }
+
+    /**
+     * 根据多元索引查询（默认查第一个多元索引）
+     * @param query             {@link SearchQuery}
+     * @param clazz             实体类
+     * @param columns           需要获取的字段（为空集合时，查全部）
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<Page<T>> search(SearchQuery query, Class<T> clazz, List<String> columns) {
+        return search(query, EntityCodecs.of(clazz).include(columns));
+    }
+
+    /**
+     * 根据多元索引查询（默认查第一个多元索引）
+     * @param query            {@link SearchQuery}
+     * @param clazz             实体类
+     * @param ignoreColumn     是否需要根据 alias.ignoreColumn 配置的来忽略字段
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<Page<T>> search(SearchQuery query, Class<T> clazz, boolean ignoreColumn) {
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        return search(query, ignoreColumn ? codec.defaultProjection() : codec.include(null));
+    }
+
+    /**
+     * 根据多元索引查询（默认查第一个多元索引）
+     * @param query            {@link SearchQuery}
+     * @param clazz             实体类
+     * @param offset            分页起始下标（下标从0开始）
+     * @param limit             分页大小，即返回的行数
+     * @param ignoreColumn     是否需要根据 alias.ignoreColumn 配置的来忽略字段
+     * @param <T>
+     * @return
+     */
+    public static <T> CompletableFuture<Page<T>> search(SearchQuery query, Class<T> clazz, int offset, int limit, boolean ignoreColumn) {
+        query.setOffset(offset);
+        query.setLimit(limit);
+        return search(query, clazz, ignoreColumn);
+    }
+
+    /**
+     * 按主键范围读取（自动读取分区之后的数据，排除 alias.ignoreColumn 配置的字段）
+     * @param start     开始主键（包含，可以使用 {@link PrimaryKeyValue#INF_MIN}）
+     * @param end       结束主键（不包含，可以使用 {@link PrimaryKeyValue#INF_MAX}）
+     * @param clazz     实体类
+     * @param limit     最多返回的行数（小于1则全查）
+     * @param <T>
+     * @return  按主键顺序的结果
+     */
+    public static <T> CompletableFuture<List<T>> getRange(PrimaryKey start, PrimaryKey end, Class<T> clazz, int limit) {
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        Projection<T> projection = codec.defaultProjection();
+        RangeRowQueryCriteria criteria = new RangeRowQueryCriteria(codec.getTableName());
+        criteria.setInclusiveStartPrimaryKey(start);
+        criteria.setExclusiveEndPrimaryKey(end);
+        criteria.setMaxVersions(1);
+        if (!projection.isReturnAll()) {
+            criteria.addColumnsToGet(projection.getColumns());
+        }
+        if (limit > 0) {
+            criteria.setLimit(Math.min(limit, 5000));     // 单次最多5000
+        }
+        return getRange(criteria, projection, limit, new ArrayList<>());
+    }
+
+    /**
+     * 读取一次，还有数据时继续读取下一段
+     */
+    private static <T> CompletableFuture<List<T>> getRange(RangeRowQueryCriteria criteria, Projection<T> projection, int limit, List<T> result) {
+        FutureCallback<GetRangeRequest, GetRangeResponse> callback = new FutureCallback<>();
+        client().getRange(new GetRangeRequest(criteria), callback);
+        return callback.thenCompose(response -> {
+            for (Row row : response.getRows()) {
+                if (limit > 0 && result.size() >= limit) {
+                    break;
+                }
+                result.add(projection.decode(row));
+            }
+            if (response.getNextStartPrimaryKey() == null || (limit > 0 && result.size() >= limit)) {
+                return CompletableFuture.completedFuture(result);
+            }
+            criteria.setInclusiveStartPrimaryKey(response.getNextStartPrimaryKey());
+            return getRange(criteria, projection, limit, result);
+        });
+    }
+
+    /**
+     * 根据多元索引查询（请求构建和结果解码和同步查询共用）
+     */
+    private static <T> CompletableFuture<Page<T>> search(SearchQuery searchQuery, Projection<T> projection) {
+        LocalDateTime startTime = LocalDateTime.now();
+        SearchRequest request = TableStoreMultipleIndexUtils.toSearchRequest(searchQuery, 0, projection);
+        FutureCallback<SearchRequest, SearchResponse> callback = new FutureCallback<>();
+        client().search(request, callback);
+        return callback.thenApply(response -> {
+            Page<T> page = TableStoreMultipleIndexUtils.toPage(response, searchQuery, projection);
+            TableStoreMultipleIndexUtils.logSearch(searchQuery, startTime);
+            return page;
+        });
+    }
+
+    /**
+     * 使用指定的客户端按主键批量获取行（按 100行/4MB 切分，同时发出所有请求，和 {@link BatchRowReader#read} 一致）
+     * @param client            异步客户端
+     * @param tableName         表名
+     * @param primaryKeys       主键集合
+     * @param columnsToGet      需要获取的列（为空时获取全部列）
+     * @return  和 primaryKeys 一一对应的行（不存在或者失败的为空）
+     */
+    public static CompletableFuture<Row[]> batchGetRow(AsyncClientInterface client, String tableName, List<PrimaryKey> primaryKeys, Collection<String> columnsToGet) {
+        Row[] rows = new Row[primaryKeys.size()];
+        List<CompletableFuture<Row[]>> futures = new ArrayList<>();
+        int offset = 0;     // 分批是连续的，按下标放回
+        for (List<PrimaryKey> batch : BatchSplitter.split(primaryKeys, Constants.BATCH_GET_MAX_ROWS, Constants.BATCH_MAX_BYTES)) {
+            MultiRowQueryCriteria criteria = new MultiRowQueryCriteria(tableName);
+            List<Integer> indexes = new ArrayList<>(batch.size());     // 请求内的下标 -> 结果的下标
+            for (PrimaryKey primaryKey : batch) {
+                criteria.addRow(primaryKey);
+                indexes.add(offset++);
+            }
+            criteria.setMaxVersions(1);
+            if (columnsToGet != null && !columnsToGet.isEmpty()) {
+                criteria.addColumnsToGet(columnsToGet);
+            }
+            BatchGetRowRequest request = new BatchGetRowRequest();
+            request.addMultiRowQueryCriteria(criteria);
+            futures.add(readBatch(client, request, indexes, rows, 0));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> rows);
+    }
+
+    /**
+     * 通过主键批量获取行
+     * @return  和 list 一一对应的行（不存在或者失败的为空）
+     */
+    private static <T> CompletableFuture<Row[]> batchGetRows(List<T> list, Projection<T> projection) {
+        EntityCodec<T> codec = projection.getCodec();
+        List<PrimaryKey> primaryKeys = new ArrayList<>(list == null ? 0 : list.size());
+        if (list != null) {
+            for (T obj : list) {
+                primaryKeys.add(codec.toPrimaryKey(obj));
+            }
+        }
+        return batchGetRow(client(), codec.getTableName(), primaryKeys, projection.getColumns());
+    }
+
+    /**
+     * 获取一批（整个请求可重试的失败时退避后重发，可重试的失败行退避后单独重试，其他的记录日志）
+     * @param client    异步客户端
+     * @param request   请求
+     * @param indexes   请求内的下标 -> 结果的下标
+     * @param rows      结果
+     * @param attempt   重试的次数（从0开始）
+     */
+    private static CompletableFuture<Row[]> readBatch(AsyncClientInterface client, BatchGetRowRequest request, List<Integer> indexes, Row[] rows, int attempt) {
+        FutureCallback<BatchGetRowRequest, BatchGetRowResponse> callback = new FutureCallback<>();
+        client.batchGetRow(request, callback);
+        return callback.handle((response, e) -> {
+            if (e == null) {
+                return readRows(client, request, response, indexes, rows, attempt);
+            }
+            // 整个请求失败：和同步的 BatchRowReader 一样，服务繁忙、超时和网络错误退避后重发
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            boolean retryable = cause instanceof ClientException
+                    || (cause instanceof TableStoreException && RetryPolicy.isRetryableRead(((TableStoreException) cause).getErrorCode()));
+            if (retryable && attempt < RetryPolicy.MAX_RETRIES) {
+                log.warn("批量获取请求失败，第{}次重试：{}", attempt + 1, cause.getMessage());
+                return delay(RetryPolicy.backoffMillis(attempt)).thenCompose(v -> readBatch(client, request, indexes, rows, attempt + 1));
+            }
+            CompletableFuture<Row[]> failed = new CompletableFuture<>();
+            failed.completeExceptionally(cause);
+            return failed;
+        }).thenCompose(future -> future);
+    }
+
+    /**
+     * 按下标放置成功的行，可重试的失败行退避后单独重试
+     */
+    private static CompletableFuture<Row[]> readRows(AsyncClientInterface client, BatchGetRowRequest request, BatchGetRowResponse response,
+                                                     List<Integer> indexes, Row[] rows, int attempt) {
+        for (BatchGetRowResponse.RowResult rowResult : response.getSucceedRows()) {
+            rows[indexes.get(rowResult.getIndex())] = rowResult.getRow();
+        }
+        List<BatchGetRowResponse.RowResult> retryRows = new ArrayList<>();
+        List<Integer> retryIndexes = new ArrayList<>();
+        for (BatchGetRowResponse.RowResult rowResult : response.getFailedRows()) {
+            if (RetryPolicy.isRetryableRead(rowResult.getError().getCode()) && attempt < RetryPolicy.MAX_RETRIES) {
+                retryRows.add(rowResult);
+                retryIndexes.add(indexes.get(rowResult.getIndex()));
+            } else {
+                log.warn("失败的行：{}，失败原因：{}", request.getPrimaryKey(rowResult.getTableName(), rowResult.getIndex()), rowResult.getError());
+            }
+        }
+        if (retryRows.isEmpty()) {
+            return CompletableFuture.completedFuture(rows);
+        }
+        log.warn("批量获取有{}行可重试的失败，第{}次重试", retryRows.size(), attempt + 1);
+        BatchGetRowRequest retryRequest = request.createRequestForRetry(retryRows);
+        return delay(RetryPolicy.backoffMillis(attempt)).thenCompose(v -> readBatch(client, retryRequest, retryIndexes, rows, attempt + 1));
+    }
+
+    private static <T> Projection<T> projection(Class<T> clazz, Collection<String> columnsToGet) {
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        boolean noColumns = columnsToGet == null || columnsToGet.isEmpty();
+        return noColumns ? codec.defaultProjection() : codec.include(columnsToGet);
+    }
+
+    private static CompletableFuture<Void> delay(long millis) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        RETRY_SCHEDULER.schedule(() -> future.complete(null), millis, TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    /**
+     * 期望不一致（OTSConditionCheckFail）时返回0，和同步接口一致
+     */
+    private static CompletableFuture<Integer> zeroIfConditionCheckFail(CompletableFuture<Integer> future) {
+        return future.handle((num, e) -> {
+            if (e == null) {
+                return num;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof TableStoreException && "OTSConditionCheckFail".equals(((TableStoreException) cause).getErrorCode())) {
+                return 0;
+            }
+            throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+        });
+    }
+
+    private static int writeCapacityUnit(ConsumedCapacity consumedCapacity) {
+        return consumedCapacity.getCapacityUnit().getWriteCapacityUnit();
+    }
+
+    private static AsyncClientInterface client() {
+        return AsyncStore.getInstance().getAsyncClient();
+    }
+
+    /**
+     * SDK 回调转换成 {@link CompletableFuture}
+     */
+    private static final class FutureCallback<Req, Res> extends CompletableFuture<Res> implements TableStoreCallback<Req, Res> {
+
+        @Override
+        public void onCompleted(Req request, Res response) {
+            complete(response);
+        }
+
+        @Override
+        public void onFailed(Req request, Exception e) {
+            completeExceptionally(e);
+        }
+    }
+
+}
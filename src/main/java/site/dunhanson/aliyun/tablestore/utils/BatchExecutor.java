@@ -0,0 +1,113 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 批量操作的分批并发执行（并发数由 tableStore.default.parallelism 配置，结果保持分批的顺序）
+ */
+@Slf4j
+public class BatchExecutor {
+
+    /**默认并发数**/
+    private static final int DEFAULT_PARALLELISM = 4;
+    /**线程池（有界队列，满了由调用线程执行）**/
+    private static volatile ExecutorService executor;
+    /**当前线程是否正在执行某一批（嵌套调用时直接在当前线程顺序执行，避免线程池的线程互相等待而死锁）**/
+    private static final ThreadLocal<Boolean> IN_BATCH = ThreadLocal.withInitial(() -> false);
+
+    private BatchExecutor() {
+
+    }
+
+    /**
+     * 替换线程池（例如使用应用自己的线程池）
+     * @param executorService   线程池
+     */
+    public static void setExecutor(ExecutorService executorService) {
+        executor = executorService;
+    }
+
+    /**
+     * 并发执行每一批，返回和分批一一对应的结果（只有一批或者嵌套调用时直接在调用线程执行）
+     * @param batches   分批
+     * @param task      每一批的操作
+     * @param <T>
+     * @param <R>
+     * @return
+     */
+    public static <T, R> List<R> map(List<T> batches, Function<T, R> task) {
+        List<R> result = new ArrayList<>(batches.size());
+        if (batches.size() <= 1 || IN_BATCH.get()) {
+            for (T batch : batches) {
+                result.add(task.apply(batch));
+            }
+            return result;
+        }
+        // 1、第一批之外的提交到线程池，第一批由调用线程执行
+        ExecutorService executorService = getExecutor();
+        List<CompletableFuture<R>> futures = new ArrayList<>(batches.size() - 1);
+        for (int i = 1; i < batches.size(); i++) {
+            T batch = batches.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> applyInBatch(task, batch), executorService));
+        }
+        result.add(applyInBatch(task, batches.get(0)));
+        // 2、按顺序收集
+        for (CompletableFuture<R> future : futures) {
+            try {
+                result.add(future.join());
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private static <T, R> R applyInBatch(Function<T, R> task, T batch) {
+        boolean nested = IN_BATCH.get();
+        IN_BATCH.set(true);
+        try {
+            return task.apply(batch);
+        } finally {
+            IN_BATCH.set(nested);
+        }
+    }
+
+    /**
+     * 获取线程池（第一次使用时按配置创建）
+     * @return
+     */
+    private static ExecutorService getExecutor() {
+        if (executor == null) {
+            synchronized (BatchExecutor.class) {
+                if (executor == null) {
+                    Integer parallelism = YamlUtils.getValueToInteger(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.DEFAULT, Constants.PARALLELISM);
+                    int threads = parallelism == null || parallelism < 1 ? DEFAULT_PARALLELISM : parallelism;
+                    AtomicInteger number = new AtomicInteger();
+                    executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 2), runnable -> {
+                        Thread thread = new Thread(runnable, "easy-tablestore-batch-" + number.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+                    log.info("批量操作线程池完成初始化，并发数={}", threads);
+                }
+            }
+        }
+        return executor;
+    }
+
+}
@@ -0,0 +1,119 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description BatchGetRow 的执行（按 100行/4MB 切分，分批并发执行，结果按输入的下标放置，只重试可重试的失败行）
+ */
+@Slf4j
+public class BatchRowReader {
+
+    private BatchRowReader() {
+
+    }
+
+    /**
+     * 批量获取
+     * @param client            客户端
+     * @param tableName         表名
+     * @param primaryKeys       主键集合
+     * @param columnsToGet      需要获取的列（为空时获取全部列）
+     * @return  和 primaryKeys 一一对应的行（不存在或者失败的为空）
+     */
+    public static Row[] read(SyncClientInterface client, String tableName, List<PrimaryKey> primaryKeys, Collection<String> columnsToGet) {
+        Row[] rows = new Row[primaryKeys.size()];
+        List<List<PrimaryKey>> batches = BatchSplitter.split(primaryKeys, Constants.BATCH_GET_MAX_ROWS, Constants.BATCH_MAX_BYTES);
+        int offset = 0;     // 分批是连续的，按下标放回
+        for (Row[] batchRows : BatchExecutor.map(batches, batch -> readBatch(client, tableName, batch, columnsToGet))) {
+            System.arraycopy(batchRows, 0, rows, offset, batchRows.length);
+            offset += batchRows.length;
+        }
+        return rows;
+    }
+
+    /**
+     * 获取一批（失败的行中可重试的单独重试，其他的记录日志）
+     * @param client            客户端
+     * @param tableName         表名
+     * @param primaryKeys       主键集合（不超过100行和4MB）
+     * @param columnsToGet      需要获取的列（为空时获取全部列）
+     * @return  和 primaryKeys 一一对应的行（不存在或者失败的为空）
+     */
+    private static Row[] readBatch(SyncClientInterface client, String tableName, List<PrimaryKey> primaryKeys, Collection<String> columnsToGet) {
+        Row[] rows = new Row[primaryKeys.size()];
+        // 1、构建请求（只取最新版本，还有需要获取的列）
+        MultiRowQueryCriteria criteria = new MultiRowQueryCriteria(tableName);
+        for (PrimaryKey primaryKey : primaryKeys) {
+            criteria.addRow(primaryKey);
+        }
+        criteria.setMaxVersions(1);
+        if (columnsToGet != null && !columnsToGet.isEmpty()) {
+            criteria.addColumnsToGet(columnsToGet);
+        }
+        BatchGetRowRequest request = new BatchGetRowRequest();
+        request.addMultiRowQueryCriteria(criteria);
+        List<Integer> indexes = new ArrayList<>(primaryKeys.size());     // 请求内的下标 -> 批内的下标
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            indexes.add(i);
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            // 2、发送（整个请求失败时，可重试的整批重试，读取是幂等的，超时等结果不确定的也重试）
+            BatchGetRowResponse response;
+            try {
+                response = client.batchGetRow(request);
+            } catch (TableStoreException e) {
+                if (RetryPolicy.isRetryableRead(e.getErrorCode()) && attempt < RetryPolicy.MAX_RETRIES && RetryPolicy.sleep(attempt)) {
+                    continue;
+                }
+                throw e;
+            } catch (ClientException e) {
+                if (attempt < RetryPolicy.MAX_RETRIES && RetryPolicy.sleep(attempt)) {     // 网络错误
+                    continue;
+                }
+                throw e;
+            }
+
+            // 3、按下标放置成功的行，收集可重试的失败行
+            List<BatchGetRowResponse.RowResult> retryRows = new ArrayList<>();
+            for (BatchGetRowResponse.RowResult rowResult : response.getSucceedRows()) {
+                rows[indexes.get(rowResult.getIndex())] = rowResult.getRow();
+            }
+            for (BatchGetRowResponse.RowResult rowResult : response.getFailedRows()) {
+                if (RetryPolicy.isRetryableRead(rowResult.getError().getCode()) && attempt < RetryPolicy.MAX_RETRIES) {
+                    retryRows.add(rowResult);
+                } else {
+                    log.warn("失败的行：{}，失败原因：{}", primaryKeys.get(indexes.get(rowResult.getIndex())), rowResult.getError());
+                }
+            }
+            if (retryRows.isEmpty()) {
+                break;
+            }
+
+            // 4、只重试失败的行（重试请求中行的顺序和 retryRows 一致）
+            List<Integer> retryIndexes = new ArrayList<>(retryRows.size());
+            for (BatchGetRowResponse.RowResult rowResult : retryRows) {
+                retryIndexes.add(indexes.get(rowResult.getIndex()));
+            }
+            log.warn("批量获取有{}行可重试的失败，第{}次重试", retryRows.size(), attempt + 1);
+            request = request.createRequestForRetry(retryRows);
+            indexes = retryIndexes;
+            if (!RetryPolicy.sleep(attempt)) {
+                break;
+            }
+        }
+        return rows;
+    }
+
+}
@@ -0,0 +1,139 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+
+import java.util.*;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description BatchWriteRow 的执行（按 200行/4MB 切分，分批并发执行，只重试服务端明确没有执行的失败行）
+ */
+@Slf4j
+public class BatchRowWriter {
+
+    private BatchRowWriter() {
+
+    }
+
+    /**
+     * 批量写入
+     * @param client        客户端
+     * @param rowChanges    行变更集合
+     * @return  每行的状态（和 rowChanges 的顺序一致）
+     */
+    public static BatchResult write(SyncClientInterface client, List<RowChange> rowChanges) {
+        List<BatchResult.RowStatus> rows = new ArrayList<>(rowChanges.size());
+        List<List<RowChange>> batches = BatchSplitter.split(rowChanges, Constants.BATCH_WRITE_MAX_ROWS, Constants.BATCH_MAX_BYTES);
+        int offset = 0;
+        for (BatchResult.RowStatus[] statuses : BatchExecutor.map(batches, batch -> writeBatch(client, batch))) {
+            for (BatchResult.RowStatus status : statuses) {
+                rows.add(new BatchResult.RowStatus(offset + status.getIndex(), status.getTableName(), status.getPrimaryKey(),
+                        status.isSucceed(), status.getErrorCode(), status.getErrorMessage(), status.getWriteCapacityUnit(), status.getAttempts()));
+            }
+            offset += statuses.length;
+        }
+        return new BatchResult(rows);
+    }
+
+    /**
+     * 写入一批（失败的行中可重试的单独重试，其他的直接记录，结果不确定的不重试，避免重复执行）
+     * @param client        客户端
+     * @param rowChanges    行变更集合（不超过200行和4MB）
+     * @return  和 rowChanges 一一对应的状态（下标为批内的下标）
+     */
+    private static BatchResult.RowStatus[] writeBatch(SyncClientInterface client, List<RowChange> rowChanges) {
+        BatchResult.RowStatus[] statuses = new BatchResult.RowStatus[rowChanges.size()];
+        // 1、构建请求（表名 -> 批内的下标，和 RowResult.getIndex() 对应）
+        BatchWriteRowRequest request = new BatchWriteRowRequest();
+        Map<String, List<Integer>> indexes = new HashMap<>();
+        for (int i = 0; i < rowChanges.size(); i++) {
+            RowChange rowChange = rowChanges.get(i);
+            request.addRowChange(rowChange);
+            indexes.computeIfAbsent(rowChange.getTableName(), key -> new ArrayList<>()).add(i);
+        }
+        for (int attempt = 0; ; attempt++) {
+            // 2、发送（整个请求失败时，只有服务端明确没有执行的才整批重试，超时和网络错误等结果不确定的直接记录原来的错误码）
+            BatchWriteRowResponse response;
+            try {
+                response = client.batchWriteRow(request);
+            } catch (TableStoreException e) {
+                if (RetryPolicy.isRetryable(e.getErrorCode()) && attempt < RetryPolicy.MAX_RETRIES && RetryPolicy.sleep(attempt)) {
+                    continue;
+                }
+                failAll(statuses, rowChanges, indexes, e.getErrorCode(), e.getMessage(), attempt + 1);
+                break;
+            } catch (ClientException e) {
+                failAll(statuses, rowChanges, indexes, RetryPolicy.CLIENT_EXCEPTION, e.getMessage(), attempt + 1);
+                break;
+            }
+            // 3、按行记录状态，收集可重试的失败行
+            List<BatchWriteRowResponse.RowResult> retryRows = new ArrayList<>();
+            for (Map.Entry<String, List<BatchWriteRowResponse.RowResult>> entry : response.getRowStatus().entrySet()) {
+                List<Integer> tableIndexes = indexes.get(entry.getKey());
+                for (BatchWriteRowResponse.RowResult rowResult : entry.getValue()) {
+                    int index = tableIndexes.get(rowResult.getIndex());
+                    RowChange rowChange = rowChanges.get(index);
+                    if (rowResult.isSucceed()) {
+                        ConsumedCapacity capacity = rowResult.getConsumedCapacity();
+                        int writeCapacityUnit = capacity == null || capacity.getCapacityUnit() == null ? 0 : capacity.getCapacityUnit().getWriteCapacityUnit();
+                        statuses[index] = new BatchResult.RowStatus(index, rowChange.getTableName(), rowChange.getPrimaryKey(),
+                                true, null, null, writeCapacityUnit, attempt + 1);
+                    } else if (RetryPolicy.isRetryable(rowResult.getError().getCode()) && attempt < RetryPolicy.MAX_RETRIES) {
+                        retryRows.add(rowResult);
+                    } else {
+                        statuses[index] = new BatchResult.RowStatus(index, rowChange.getTableName(), rowChange.getPrimaryKey(),
+                                false, rowResult.getError().getCode(), rowResult.getError().getMessage(), 0, attempt + 1);
+                    }
+                }
+            }
+            if (retryRows.isEmpty()) {
+                break;
+            }
+            // 4、只重试失败的行（重试请求中每个表的行顺序和 retryRows 一致）
+            Map<String, List<Integer>> retryIndexes = new HashMap<>();
+            for (BatchWriteRowResponse.RowResult rowResult : retryRows) {
+                int index = indexes.get(rowResult.getTableName()).get(rowResult.getIndex());
+                retryIndexes.computeIfAbsent(rowResult.getTableName(), key -> new ArrayList<>()).add(index);
+            }
+            log.warn("批量写入有{}行可重试的失败，第{}次重试", retryRows.size(), attempt + 1);
+            request = request.createRequestForRetry(retryRows);
+            indexes = retryIndexes;
+            if (!RetryPolicy.sleep(attempt)) {
+                failAll(statuses, rowChanges, indexes, "Interrupted", "重试等待被中断", attempt + 1);
+                break;
+            }
+        }
+        // 5、响应里没有的行
+        for (int i = 0; i < statuses.length; i++) {
+            if (statuses[i] == null) {
+                RowChange rowChange = rowChanges.get(i);
+                statuses[i] = new BatchResult.RowStatus(i, rowChange.getTableName(), rowChange.getPrimaryKey(),
+                        false, "MissingRowResult", "响应中缺少该行的结果", 0, 0);
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * 当前请求里的行全部记录为失败
+     */
+    private static void failAll(BatchResult.RowStatus[] statuses, List<RowChange> rowChanges, Map<String, List<Integer>> indexes,
+                                String errorCode, String errorMessage, int attempts) {
+        log.warn("批量写入失败：{}，{}", errorCode, errorMessage);
+        for (List<Integer> tableIndexes : indexes.values()) {
+            for (int index : tableIndexes) {
+                RowChange rowChange = rowChanges.get(index);
+                statuses[index] = new BatchResult.RowStatus(index, rowChange.getTableName(), rowChange.getPrimaryKey(),
+                        false, errorCode, errorMessage, 0, attempts);
+            }
+        }
+    }
+
+}
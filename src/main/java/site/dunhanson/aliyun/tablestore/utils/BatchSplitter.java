@@ -0,0 +1,49 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.model.Measurable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 批量请求的分批（同时按 行数上限 和 字节数上限 切分，保持原来的顺序，每批尽量装满）
+ */
+public class BatchSplitter {
+
+    private BatchSplitter() {
+
+    }
+
+    /**
+     * 按行数和字节数切分（单行超过字节数上限时单独一批，由服务端决定是否接受）
+     * @param items     {@link Measurable}（RowChange/PrimaryKey）集合
+     * @param maxRows   每批最多的行数
+     * @param maxBytes  每批最多的字节数
+     * @param <T>
+     * @return  连续的分批（subList视图）
+     */
+    public static <T extends Measurable> List<List<T>> split(List<T> items, int maxRows, long maxBytes) {
+        if (items == null || items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<List<T>> batches = new ArrayList<>(items.size() / maxRows + 1);
+        int from = 0;
+        long bytes = 0;
+        for (int i = 0; i < items.size(); i++) {
+            long size = items.get(i).getDataSize();
+            int rows = i - from;
+            if (rows > 0 && (rows >= maxRows || bytes + size > maxBytes)) {
+                batches.add(items.subList(from, i));
+                from = i;
+                bytes = 0;
+            }
+            bytes += size;
+        }
+        batches.add(items.subList(from, items.size()));
+        return batches;
+    }
+
+}
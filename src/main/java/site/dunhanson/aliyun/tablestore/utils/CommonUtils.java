@@ -1,13 +1,16 @@
 package site.dunhanson.aliyun.tablestore.utils;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
 import com.alicloud.openservices.tablestore.model.Column;
 import com.alicloud.openservices.tablestore.model.PrimaryKeyColumn;
 import com.alicloud.openservices.tablestore.model.Row;
 import com.google.gson.Gson;
+import site.dunhanson.aliyun.tablestore.codec.ColumnSymbolTable;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.Projection;
 import site.dunhanson.aliyun.tablestore.constants.Constants;
 import site.dunhanson.aliyun.tablestore.entity.TableInfo;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
 
 import java.io.IOException;
 import java.lang.reflect.Field;
@@ -19,29 +22,39 @@ import java.util.*;
 public class CommonUtils {
 
 
-    /**TableInfo Map集合**/
-    private static Map<String, TableInfo> tableInfoMap = new HashMap<>();
     /**gson**/
     private static Gson gson = new Gson();
 
     /**
-     * 获取表基础信息对象
+     * 获取表基础信息对象（由 {@link TableMetadataRegistry} 的元数据复制而来）
      * @param alias     实体类的别名（例如： Document=document）
      * @return
      */
     public static TableInfo getTableInfo(String alias) {
-        TableInfo tableInfo = tableInfoMap.get(alias);
-        if (tableInfo == null) {
-            tableInfo = new TableInfo();
-            tableInfo.setTableName(YamlUtils.getValueToString(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES, alias, Constants.TABLE_NAME));
-            tableInfo.setPrimaryKey(YamlUtils.getValueToList(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES, alias, Constants.PRIMARY_KEY));
-            tableInfo.setSecondaryIndex(YamlUtils.getValueToList(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES, alias, Constants.SECONDARY_INDEX));
-            tableInfo.setIndexName(YamlUtils.getValueToList(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES, alias, Constants.INDEX_NAME));
-            tableInfo.setIgnoreColumn(YamlUtils.getValueToList(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES, alias, Constants.IGNORE_COLUMN));
+        return toTableInfo(TableMetadataRegistry.get(alias));
+    }
 
-            // 设置全局配置参数
-            tableInfo.setLimit(YamlUtils.getValueToInteger(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.DEFAULT, Constants.LIMIT));
+    /**
+     * 元数据转换成表基础信息对象
+     * @param metadata  {@link TableMetadata}
+     * @return
+     */
+    private static TableInfo toTableInfo(TableMetadata metadata) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(metadata.getTableName());
+        List<String> primaryKey = new ArrayList<>();
+        for (TableMetadata.KeyColumn keyColumn : metadata.getPrimaryKeys()) {
+            primaryKey.add(keyColumn.getName());
+        }
+        tableInfo.setPrimaryKey(primaryKey);
+        List<String> secondaryIndex = new ArrayList<>();
+        for (TableMetadata.SecondaryIndex index : metadata.getSecondaryIndexes()) {
+            secondaryIndex.add(index.getIndexName());
         }
+        tableInfo.setSecondaryIndex(secondaryIndex);
+        tableInfo.setIndexName(new ArrayList<>(metadata.getIndexNames()));
+        tableInfo.setIgnoreColumn(new ArrayList<>(metadata.getIgnoreColumns()));
+        tableInfo.setLimit(metadata.getLimit());
         return tableInfo;
     }
 
@@ -51,7 +64,7 @@ public class CommonUtils {
      * @return
      */
     public static TableInfo getTableInfo(Object obj) {
-        return getTableInfo(getAlias(obj));
+        return toTableInfo(TableMetadataRegistry.get(obj));
     }
 
     /**
@@ -60,7 +73,7 @@ public class CommonUtils {
      * @return
      */
     public static TableInfo getTableInfo(Class clazz) {
-        return getTableInfo(getAlias(clazz));
+        return toTableInfo(TableMetadataRegistry.get(clazz));
     }
 
     /**
@@ -119,51 +132,15 @@ public class CommonUtils {
         return map;
     }
 
+    /**
+     * 行转换成对象（使用实体类的 {@link EntityCodec}）
+     * @param row       {@link Row}
+     * @param clazz     实体类
+     * @param <T>
+     * @return
+     */
     public static <T> T rowToEntity(Row row, Class<T> clazz) {
-        T entity = null;
-        JSONObject obj = new JSONObject();
-        Map<String, Field> fieldMap = getFieldMap(clazz);
-        //遍历主键
-        PrimaryKeyColumn[] primaryKeyColumns = row.getPrimaryKey().getPrimaryKeyColumns();
-        for(PrimaryKeyColumn column : primaryKeyColumns) {
-            String name = column.getName();
-            Object value = null;
-            try {
-                value = column.getValue().toColumnValue().getValue();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-            //包含下划线，转换成驼峰
-            if(name.contains(Constants.UNDERLINE)) {
-                name = underlineToHump(name);
-            }
-            obj.put(name, value);
-        }
-        //遍历列
-        Column[] columns = row.getColumns();
-        for(int i = 0; i < columns.length; i++) {
-            Column column = columns[i];
-            String name = column.getName();
-            Object value = column.getValue().getValue();
-            //包含下划线，转换成驼峰
-            if(name.contains(Constants.UNDERLINE)) {
-                name = underlineToHump(name);
-            }
-            Field field = fieldMap.get(name);
-            if (value != null && field != null) {
-//                if ("List".equals(field.getType().getSimpleName())) {  // 因为现在嵌套的只有json数组类型
-                if (value.toString().matches("^\\[.*\\]$")) {  // 因为现在嵌套的只有json数组类型
-                   try {
-                       obj.put(name, JSON.parseArray(value.toString()));
-                   }catch (Exception e){
-                       obj.put(name, value);    // 其他的 [XXX] 排除掉
-                   }
-                } else {
-                    obj.put(name, value);
-                }
-            }
-        }
-        return JSON.parseObject(obj.toJSONString(), clazz);
+        return EntityCodecs.of(clazz).decode(row);
     }
 
     /**
@@ -189,16 +166,20 @@ public class CommonUtils {
      * @return
      */
     public static String underlineToHump(String text) {
-        StringBuffer stringBuffer = new StringBuffer();
-        String[] arr = text.split(Constants.UNDERLINE);
-        for(int i = 0; i < arr.length; i++) {
-            String str = arr[i];
-            if(i != 0) {
-                str = str.substring(0, 1).toUpperCase() + str.substring(1);
+        StringBuilder stringBuilder = new StringBuilder(text.length());
+        boolean upperCase = false;
+        for(int i = 0; i < text.length(); i++) {
+            char tempChar = text.charAt(i);
+            if(tempChar == '_') {
+                upperCase = true;
+            } else if(upperCase) {
+                stringBuilder.append(Character.toUpperCase(tempChar));
+                upperCase = false;
+            } else {
+                stringBuilder.append(tempChar);
             }
-            stringBuffer.append(str);
         }
-        return stringBuffer.toString();
+        return stringBuilder.toString();
     }
 
     /**
@@ -207,11 +188,11 @@ public class CommonUtils {
      * @return
      */
     public static String humpToUnderline(String text){
-        StringBuilder stringBuilder = new StringBuilder();
+        StringBuilder stringBuilder = new StringBuilder(text.length() + 8);
         for(int i = 0; i < text.length(); i++) {
             char tempChar = text.charAt(i);
             if(Character.isUpperCase(tempChar)) {
-                stringBuilder.append(Constants.UNDERLINE + Character.toLowerCase(tempChar));
+                stringBuilder.append('_').append(Character.toLowerCase(tempChar));
             } else {
                 stringBuilder.append(tempChar);
             }
@@ -247,10 +228,8 @@ public class CommonUtils {
      * @param ignoreColumns
      * @return
      */
-    public static List<String> getNoIgnoreColumns(Class clazz, List<String> ignoreColumns) {
-        List<String> allColumns = getAllFieldName(clazz, true);
-        allColumns.removeAll(ignoreColumns);
-        return allColumns;
+    public static List<String> getNoIgnoreColumns(Class<?> clazz, List<String> ignoreColumns) {
+        return columnsOf(EntityCodecs.of(clazz).exclude(ignoreColumns));
     }
 
     /**
@@ -259,7 +238,7 @@ public class CommonUtils {
      * @param ignoreColumns
      * @return
      */
-    public static List<String> getNoIgnoreColumns(Class clazz, String...ignoreColumns) {
+    public static List<String> getNoIgnoreColumns(Class<?> clazz, String...ignoreColumns) {
         return getNoIgnoreColumns(clazz, Arrays.asList(ignoreColumns));
     }
 
@@ -268,9 +247,25 @@ public class CommonUtils {
      * @param clazz
      * @return
      */
-    public static List<String> getNoIgnoreColumns(Class clazz) {
-        List<String> ignoreColumns = getTableInfo(getAlias(clazz)).getIgnoreColumn();
-        return getNoIgnoreColumns(clazz, ignoreColumns);
+    public static List<String> getNoIgnoreColumns(Class<?> clazz) {
+        return columnsOf(EntityCodecs.of(clazz).defaultProjection());
+    }
+
+    /**
+     * 投影的列（查全部时返回全部列，返回可修改的新集合）
+     * @param projection
+     * @return
+     */
+    private static List<String> columnsOf(Projection<?> projection) {
+        if(!projection.isReturnAll()) {
+            return new ArrayList<>(projection.getColumns());
+        }
+        ColumnSymbolTable symbolTable = projection.getCodec().getSymbolTable();
+        List<String> list = new ArrayList<>(symbolTable.size());
+        for(int i = 0; i < symbolTable.size(); i++) {
+            list.add(symbolTable.columnName(i));
+        }
+        return list;
     }
 
 
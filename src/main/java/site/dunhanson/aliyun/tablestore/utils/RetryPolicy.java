@@ -0,0 +1,100 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 重试策略（可重试的错误码、结果不确定的错误码，带随机抖动的指数退避）
+ */
+public class RetryPolicy {
+
+    /**最多重试次数**/
+    public static final int MAX_RETRIES = 3;
+    /**退避的基础毫秒数**/
+    private static final long BASE_MILLIS = 100;
+    /**退避的最大毫秒数**/
+    private static final long MAX_MILLIS = 2000;
+    /**客户端异常（网络错误等，没有错误码）记录的错误码**/
+    public static final String CLIENT_EXCEPTION = "ClientException";
+    /**可重试的错误码（限流、服务繁忙、分区不可用等，服务端明确没有执行，写入也可以重试）**/
+    private static final Set<String> RETRYABLE_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "OTSRowOperationConflict",
+            "OTSNotEnoughCapacityUnit",
+            "OTSTableNotReady",
+            "OTSPartitionUnavailable",
+            "OTSServerBusy",
+            "OTSCapacityUnitExhausted",
+            "OTSTooFrequentReservedThroughputAdjustment",
+            "OTSQuotaExhausted"
+    )));
+    /**结果不确定的错误码（超时、服务端内部错误、网络错误，可能已经执行，只有读取可以重试）**/
+    private static final Set<String> AMBIGUOUS_CODES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "OTSTimeout",
+            "OTSInternalServerError",
+            "OTSServerUnavailable",
+            CLIENT_EXCEPTION
+    )));
+
+    private RetryPolicy() {
+
+    }
+
+    /**
+     * 是否可以重试（读取和写入都可以）
+     * @param errorCode     错误码
+     * @return
+     */
+    public static boolean isRetryable(String errorCode) {
+        return errorCode != null && RETRYABLE_CODES.contains(errorCode);
+    }
+
+    /**
+     * 是否结果不确定（写入可能已经生效，重试会导致自增重复、条件更新误报冲突）
+     * @param errorCode     错误码
+     * @return
+     */
+    public static boolean isAmbiguous(String errorCode) {
+        return errorCode != null && AMBIGUOUS_CODES.contains(errorCode);
+    }
+
+    /**
+     * 读取是否可以重试（读取是幂等的，结果不确定的也可以重试）
+     * @param errorCode     错误码
+     * @return
+     */
+    public static boolean isRetryableRead(String errorCode) {
+        return isRetryable(errorCode) || isAmbiguous(errorCode);
+    }
+
+    /**
+     * 第 attempt 次重试前等待的毫秒数（一半固定，一半随机，避免同时重试）
+     * @param attempt   重试的次数（从0开始）
+     * @return
+     */
+    public static long backoffMillis(int attempt) {
+        long max = Math.min(MAX_MILLIS, BASE_MILLIS << Math.min(attempt, 20));
+        long half = max / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    /**
+     * 第 attempt 次重试前退避等待
+     * @param attempt   重试的次数（从0开始）
+     * @return  被中断时返回false
+     */
+    public static boolean sleep(int attempt) {
+        try {
+            Thread.sleep(backoffMillis(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
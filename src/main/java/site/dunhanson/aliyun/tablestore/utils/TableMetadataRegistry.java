@@ -0,0 +1,167 @@
+package site.dunhanson.aliyun.tablestore.utils;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
+
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 表元数据注册中心（启动时一次性读取 tableStore.yaml，之后按实体类无锁获取）
+ */
+@Slf4j
+public class TableMetadataRegistry {
+
+    /**别名 -> 表的配置（启动时构建，之后只读）**/
+    private static final Map<String, Map<String, Object>> tableConfigMap;
+    /**别名 -> 元数据（启动时构建，之后只读）**/
+    private static final Map<String, TableMetadata> aliasMetadataMap;
+    /**全局默认分页大小**/
+    private static final Integer defaultLimit;
+    /**实体类 -> 元数据（ClassValue 在计算完成后的读取是无锁的）**/
+    private static final ClassValue<TableMetadata> metadataMap = new ClassValue<TableMetadata>() {
+        @Override
+        protected TableMetadata computeValue(Class<?> type) {
+            return build(CommonUtils.getAlias(type), type);
+        }
+    };
+
+    static {
+        Map<String, Map<String, Object>> map = new HashMap<>();
+        Object tables = YamlUtils.getValue(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.TABLES);
+        if (tables instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) tables).entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    // yaml 的 key 不一定是字符串，逐个转换
+                    Map<String, Object> tableConfig = new HashMap<>();
+                    for (Map.Entry<?, ?> item : ((Map<?, ?>) entry.getValue()).entrySet()) {
+                        tableConfig.put(String.valueOf(item.getKey()), item.getValue());
+                    }
+                    map.put(String.valueOf(entry.getKey()), tableConfig);
+                }
+            }
+        }
+        tableConfigMap = Collections.unmodifiableMap(map);
+        defaultLimit = YamlUtils.getValueToInteger(Constants.FILE_PATH, Constants.TABLE_STORE, Constants.DEFAULT, Constants.LIMIT);
+        Map<String, TableMetadata> metadata = new HashMap<>();
+        for (String alias : tableConfigMap.keySet()) {
+            metadata.put(alias, build(alias, null));
+        }
+        aliasMetadataMap = Collections.unmodifiableMap(metadata);
+        log.info("表元数据完成初始化={}", tableConfigMap.keySet());
+    }
+
+    private TableMetadataRegistry() {
+
+    }
+
+    /**
+     * 获取实体类的表元数据
+     * @param clazz     实体类
+     * @return
+     */
+    public static TableMetadata get(Class<?> clazz) {
+        return metadataMap.get(clazz);
+    }
+
+    /**
+     * 获取实体对象的表元数据
+     * @param obj       实体类对象实例
+     * @return
+     */
+    public static TableMetadata get(Object obj) {
+        return metadataMap.get(obj.getClass());
+    }
+
+    /**
+     * 根据别名获取表元数据（没有实体类时主键类型按字符串处理）
+     * @param alias     实体类的别名（例如： Document=document）
+     * @return
+     */
+    public static TableMetadata get(String alias) {
+        TableMetadata metadata = aliasMetadataMap.get(alias);
+        return metadata == null ? build(alias, null) : metadata;
+    }
+
+    /**
+     * 是否配置了该别名
+     * @param alias     实体类的别名
+     * @return
+     */
+    public static boolean contains(String alias) {
+        return tableConfigMap.containsKey(alias);
+    }
+
+    /**
+     * 构建表元数据
+     * @param alias     别名
+     * @param clazz     实体类（用于确定主键类型，可为空）
+     * @return
+     */
+    private static TableMetadata build(String alias, Class<?> clazz) {
+        Map<String, Object> config = tableConfigMap.getOrDefault(alias, Collections.emptyMap());
+        String tableName = (String) config.get(Constants.TABLE_NAME);
+
+        // 1、主键
+        List<TableMetadata.KeyColumn> primaryKeys = new ArrayList<>();
+        for (String key : toList(config.get(Constants.PRIMARY_KEY))) {
+            primaryKeys.add(new TableMetadata.KeyColumn(key, primaryKeyType(clazz, key)));
+        }
+
+        // 2、二级索引
+        List<TableMetadata.SecondaryIndex> secondaryIndexes = new ArrayList<>();
+        for (String indexName : toList(config.get(Constants.SECONDARY_INDEX))) {
+            secondaryIndexes.add(new TableMetadata.SecondaryIndex(indexName, indexName.replace(tableName + "_index2_", "")));
+        }
+
+        // 3、分页大小（表的配置覆盖全局的配置）
+        Object limit = config.get(Constants.LIMIT);
+        return new TableMetadata(alias, tableName,
+                Collections.unmodifiableList(primaryKeys),
+                Collections.unmodifiableList(secondaryIndexes),
+                Collections.unmodifiableList(toList(config.get(Constants.INDEX_NAME))),
+                Collections.unmodifiableSet(new LinkedHashSet<>(toList(config.get(Constants.IGNORE_COLUMN)))),
+                Collections.unmodifiableSet(new LinkedHashSet<>(toList(config.get(Constants.NESTED_COLUMN)))),
+                Boolean.TRUE.equals(config.get(Constants.LAZY_NESTED)),
+                Collections.unmodifiableSet(new LinkedHashSet<>(toList(config.get(Constants.COMPRESS_COLUMN)))),
+                config.get(Constants.COMPRESSION) == null ? "deflate" : String.valueOf(config.get(Constants.COMPRESSION)),
+                Collections.unmodifiableSet(new LinkedHashSet<>(toList(config.get(Constants.CHUNK_COLUMN)))),
+                config.get(Constants.VERSION_COLUMN) == null ? null : String.valueOf(config.get(Constants.VERSION_COLUMN)),
+                limit instanceof Integer ? (Integer) limit : defaultLimit);
+    }
+
+    /**
+     * 根据实体类的字段类型确定主键类型（整型为 INTEGER，其他为 STRING）
+     */
+    private static PrimaryKeyType primaryKeyType(Class<?> clazz, String key) {
+        if (clazz != null) {
+            try {
+                Field field = clazz.getDeclaredField(CommonUtils.underlineToHump(key));
+                Class<?> type = field.getType();
+                if (type == Long.class || type == long.class || type == Integer.class || type == int.class) {
+                    return PrimaryKeyType.INTEGER;
+                } else if (type == byte[].class) {
+                    return PrimaryKeyType.BINARY;
+                }
+            } catch (NoSuchFieldException e) {
+                log.warn("{} 缺少主键对应的字段：{}", clazz.getName(), key);
+            }
+        }
+        return PrimaryKeyType.STRING;
+    }
+
+    private static List<String> toList(Object value) {
+        List<String> list = new ArrayList<>();
+        if (value instanceof Collection) {
+            for (Object item : (Collection<?>) value) {
+                list.add(String.valueOf(item));
+            }
+        }
+        return list;
+    }
+
+}
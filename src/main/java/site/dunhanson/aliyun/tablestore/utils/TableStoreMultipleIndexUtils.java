@@ -7,7 +7,10 @@ import com.alicloud.openservices.tablestore.model.search.SearchRequest;
 import com.alicloud.openservices.tablestore.model.search.SearchResponse;
 import com.alicloud.openservices.tablestore.model.search.query.*;
 import lombok.extern.slf4j.Slf4j;
-import site.dunhanson.aliyun.tablestore.entity.TableInfo;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.Projection;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
 import site.dunhanson.aliyun.tablestore.entity.Page;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -42,7 +45,7 @@ public class TableStoreMultipleIndexUtils {
      * @return
      */
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, List<String> columns) {
-        return search(query, clazz, 0, columns);
+        return search(query, 0, EntityCodecs.of(clazz).include(columns));
     }
 
     /**
@@ -54,7 +57,7 @@ public class TableStoreMultipleIndexUtils {
      * @return
      */
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, String...ignoreColumns) {
-        return search(query, clazz, CommonUtils.getNoIgnoreColumns(clazz, ignoreColumns));
+        return search(query, 0, EntityCodecs.of(clazz).exclude(Arrays.asList(ignoreColumns)));
     }
 
     /**
@@ -66,7 +69,8 @@ public class TableStoreMultipleIndexUtils {
      * @return
      */
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, boolean ignoreColumn) {
-        return ignoreColumn ? search(query, clazz, CommonUtils.getNoIgnoreColumns(clazz)) : search(query, clazz);
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        return search(query, 0, ignoreColumn ? codec.defaultProjection() : codec.include(null));
     }
 
     /**
@@ -95,7 +99,7 @@ public class TableStoreMultipleIndexUtils {
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, int offset, int limit, List<String> columns) {
         query.setOffset(offset);
         query.setLimit(limit);
-        return search(query, clazz, 0, columns);
+        return search(query, 0, EntityCodecs.of(clazz).include(columns));
     }
 
     /**
@@ -109,7 +113,9 @@ public class TableStoreMultipleIndexUtils {
      * @return
      */
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, int offset, int limit, String...ignoreColumns) {
-        return search(query, clazz, offset, limit, CommonUtils.getNoIgnoreColumns(clazz, ignoreColumns));
+        query.setOffset(offset);
+        query.setLimit(limit);
+        return search(query, 0, EntityCodecs.of(clazz).exclude(Arrays.asList(ignoreColumns)));
     }
 
     /**
@@ -123,29 +129,52 @@ public class TableStoreMultipleIndexUtils {
      * @return
      */
     public static <T> Page<T> search(SearchQuery query, Class<T> clazz, int offset, int limit, boolean ignoreColumn) {
-        return ignoreColumn ? search(query, clazz, offset, limit, CommonUtils.getNoIgnoreColumns(clazz)) : search(query, clazz, offset, limit);
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        query.setOffset(offset);
+        query.setLimit(limit);
+        return search(query, 0, ignoreColumn ? codec.defaultProjection() : codec.include(null));
     }
 
     /**
      * 根据多元索引查询
      * @param searchQuery      {@link SearchQuery}
-     * @param clazz             实体类
      * @param index             多元索引的下标（每个表建议配置一个多元索引即可）
-     * @param columns           需要获取的字段（为空集合时，查全部）
+     * @param projection        列投影（决定返回字段和解码的字段）
      * @param <T>
      * @return
      */
-    private static <T> Page<T> search(SearchQuery searchQuery, Class<T> clazz, int index, List<String> columns) {
+    private static <T> Page<T> search(SearchQuery searchQuery, int index, Projection<T> projection) {
         //开始时间
         LocalDateTime startTime = LocalDateTime.now();
+        //查询对象
+        SearchRequest request = toSearchRequest(searchQuery, index, projection);
+        //查询并返回响应
+        SyncClient client = Store.getInstance().getSyncClient();
+        SearchResponse resp = client.search(request);
+        //设置分页对象
+        Page<T> page = toPage(resp, searchQuery, projection);
+        //日志打印
+        logSearch(searchQuery, startTime);
+        return page;
+    }
+
+    /**
+     * 构建查询请求（补全默认的分页大小和偏移数，同步和异步的查询共用）
+     * @param searchQuery      {@link SearchQuery}
+     * @param index             多元索引的下标
+     * @param projection        列投影
+     * @param <T>
+     * @return
+     */
+    static <T> SearchRequest toSearchRequest(SearchQuery searchQuery, int index, Projection<T> projection) {
         //基础信息
-        TableInfo tableInfo = CommonUtils.getTableInfo(clazz);
+        TableMetadata tableMetadata = TableMetadataRegistry.get(projection.getCodec().getEntityClass());
         //获取总记录数
         searchQuery.setGetTotalCount(true);
         //分页数
         Integer limit = searchQuery.getLimit();
         if(limit == null) {
-            limit = tableInfo.getLimit();
+            limit = tableMetadata.getLimit();
         }
         searchQuery.setLimit(limit);
         //偏移数
@@ -155,25 +184,37 @@ public class TableStoreMultipleIndexUtils {
         }
         searchQuery.setOffset(offset);
         //查询对象
-        SearchRequest request = new SearchRequest(tableInfo.getTableName(), tableInfo.getIndexName().get(index), searchQuery);
-        //返回字段
-        SearchRequest.ColumnsToGet columnsToGet = new SearchRequest.ColumnsToGet();
-        if(columns == null || columns.size() == 0) {
-            columnsToGet.setReturnAll(true);
-        } else {
-            columnsToGet.setColumns(columns);
-        }
-        request.setColumnsToGet(columnsToGet);
-        //查询并返回响应
-        SyncClient client = Store.getInstance().getSyncClient();
-        SearchResponse resp = client.search(request);
-        //设置分页对象
-        Page<T> page = getListFromSearchResponse(resp, clazz, limit);
+        SearchRequest request = new SearchRequest(tableMetadata.getTableName(), tableMetadata.getIndexNames().get(index), searchQuery);
+        //返回字段（投影构建时已经生成）
+        request.setColumnsToGet(projection.getColumnsToGet());
+        return request;
+    }
+
+    /**
+     * 获取结果集
+     * @param response      {@link SearchResponse}
+     * @param searchQuery   {@link #toSearchRequest(SearchQuery, int, Projection)} 补全过的查询
+     * @param projection    列投影
+     * @param <T>
+     * @return
+     */
+    static <T> Page<T> toPage(SearchResponse response, SearchQuery searchQuery, Projection<T> projection) {
+        long totalCount = response.getTotalCount();
+        List<T> list = projection.decode(response.getRows());
+        Page<T> page = new Page<T>(searchQuery.getLimit(), totalCount, list);
         //设置偏移数
-        page.setOffset(offset);
+        page.setOffset(searchQuery.getOffset());
+        return page;
+    }
+
+    /**
+     * 打印查询日志
+     * @param searchQuery   {@link SearchQuery}
+     * @param startTime     开始时间
+     */
+    static void logSearch(SearchQuery searchQuery, LocalDateTime startTime) {
         //结束时间
         LocalDateTime endTime = LocalDateTime.now();
-        //日志打印
         StringBuffer logStr = new StringBuffer();
         logStr.append("\n");
         logStr.append("---------> Easy TableStore Search --------->");
@@ -184,24 +225,6 @@ public class TableStoreMultipleIndexUtils {
         logStr.append("\n");
         logStr.append("<--------- Easy TableStore Search <---------");
         log.info(logStr.toString());
-        return page;
-    }
-
-    /**
-     * 获取结果集
-     * @param response  {@link SearchResponse}
-     * @param clazz      实体类
-     * @param <T>
-     * @return
-     */
-    private static <T> Page<T> getListFromSearchResponse(SearchResponse response, Class<T> clazz, int limit) {
-        long totalCount = response.getTotalCount();
-        List<T> list = new ArrayList();
-        List<Row> rows = response.getRows();
-        for(Row row : rows) {
-            list.add(CommonUtils.rowToEntity(row, clazz));
-        }
-        return new Page<T>(limit, totalCount, list);
     }
 
 
@@ -1,18 +1,17 @@
 package site.dunhanson.aliyun.tablestore.utils;
 
-import com.alibaba.fastjson.JSON;
-import com.alibaba.fastjson.JSONObject;
-import com.alibaba.fastjson.PropertyNamingStrategy;
-import com.alibaba.fastjson.serializer.SerializeConfig;
 import com.alicloud.openservices.tablestore.SyncClient;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
 import com.alicloud.openservices.tablestore.TableStoreException;
 import com.alicloud.openservices.tablestore.model.*;
-import com.google.common.collect.Lists;
 import lombok.extern.slf4j.Slf4j;
-import site.dunhanson.aliyun.tablestore.entity.TableInfo;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.EntitySnapshots;
+import site.dunhanson.aliyun.tablestore.codec.Projection;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
 
-import java.lang.reflect.Field;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 /**
@@ -23,14 +22,6 @@ import java.util.*;
 @Slf4j
 public class TableStoreUtils {
 
-    /**
-     * SerializeConfig全局一个即可
-     */
-    private static SerializeConfig serializeConfig = new SerializeConfig();
-    static {
-        serializeConfig.propertyNamingStrategy = PropertyNamingStrategy.SnakeCase;
-    }
-
     /**
      * 新增（如果该记录存在则完成覆盖更新）
      * @param obj   实体类对象实例
@@ -39,56 +30,12 @@ public class TableStoreUtils {
     public static int insert(Object obj) {
         int num = 0;
         if (obj != null) {
-            // 获取表的配置信息
-            TableInfo aliasBasicInfo = CommonUtils.getTableInfo(obj);
             SyncClient client = Store.getInstance().getSyncClient();
 
+            // 1、构造写入对象（主键和其他属性）
+            RowPutChange rowPutChange = EntityCodecs.ofEntity(obj).toRowPutChange(obj);
 
-            Map<String, Field> fieldMap = CommonUtils.getFieldMap(obj.getClass());
-            // 1、构造主键
-            PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
-            List<String> primaryKeyList = aliasBasicInfo.getPrimaryKey();
-            for (String key : primaryKeyList) {
-                Field field = fieldMap.get(CommonUtils.underlineToHump(key));
-                Object value = CommonUtils.getFieldValue(field, obj);
-                if (field.getType().getSimpleName().equals("Long")) {
-                    primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value));
-                } else {
-                    primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value));
-                }
-            }
-            PrimaryKey primaryKey = primaryKeyBuilder.build();
-            RowPutChange rowPutChange = new RowPutChange(aliasBasicInfo.getTableName(), primaryKey);
-
-            // 2、设置其他属性
-            for (Map.Entry<String, Field> map : fieldMap.entrySet()) {
-                String key = map.getKey();
-                Field field = map.getValue();
-                Object value = CommonUtils.getFieldValue(field, obj);
-                key = CommonUtils.humpToUnderline(key);     // 驼峰转下划线
-                if (!primaryKeyList.contains(key) && value != null) {       // 非主键 非空 判断
-                    if (field.getType().getSimpleName().equals("String")) {      // 待完善 其他类型当成字符串处理，目前是够用的
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromString((String) value)));
-                    } else if (field.getType().getSimpleName().equals("Integer")) {
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromLong((Integer) value)));
-                    } else if (field.getType().getSimpleName().equals("Long")) {
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromLong((Long) value)));
-                    } else if (field.getType().getSimpleName().equals("Double")) {
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromDouble(Double.valueOf(value.toString()))));
-                    }  else if (field.getType().getSimpleName().equals("Boolean")) {
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromBoolean(Boolean.valueOf(value.toString()))));
-                    } else if (field.getType().getSimpleName().equals("Date"))  {
-                        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                        String format = sdf.format(value);
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromString(format)));
-                    } else if (value.toString().matches("^\\[.*\\]$")) { // json数组，ots只支持json数组的嵌套数据类型，需要把驼峰法转成下划线再入库
-                        String text = JSON.toJSONString(value, serializeConfig);
-                        rowPutChange.addColumn(new Column(key, ColumnValue.fromString(text)));
-                    }
-                }
-            }
-
-            // 3、写入
+            // 2、写入
             PutRowResponse putRowResponse = client.putRow(new PutRowRequest(rowPutChange));
             num = putRowResponse.getConsumedCapacity().getCapacityUnit().getWriteCapacityUnit();
         }
@@ -96,19 +43,64 @@ public class TableStoreUtils {
     }
 
     /**
-     * 更新不为空的字段
+     * 更新不为空的字段（有版本列时检查版本和读取时一致，成功后实体的版本加1）
      * @param obj   实体类对象实例
-     * @return
+     * @return  消耗的写CU（行不存在或者版本冲突时为0）
      */
     public static int update(Object obj) {
-        // 获取表的配置信息
-        TableInfo aliasBasicInfo = CommonUtils.getTableInfo(obj);
-        SyncClient client = Store.getInstance().getSyncClient();
+        int num = updateRow(getRowUpdateChange(obj));
+        if (num > 0) {
+            advanceVersion(obj);
+        }
+        return num;
+    }
+
+    /**
+     * 只更新相对快照变化的字段（值变化的写入，变为空的删除，有版本列时检查版本；快照由 {@link #getForUpdate(Object, Class)} 等读取时记录）
+     * @param obj   实体类对象实例
+     * @return  没有记录快照时等同于 {@link #update(Object)}，没有变化时不写入并返回0
+     */
+    public static int updateChanged(Object obj) {
+        ColumnValue[] snapshot = EntitySnapshots.get(obj);
+        if (snapshot == null) {
+            return update(obj);
+        }
+        RowUpdateChange rowUpdateChange = EntityCodecs.ofEntity(obj).toRowUpdateChange(snapshot, obj);
+        int num = updateChanged(obj, rowUpdateChange);
+        if (num > 0) {
+            EntitySnapshots.record(obj);
+        }
+        return num;
+    }
+
+    /**
+     * 只更新 after 相对 before 变化的字段（值变化的写入，变为空的删除，有版本列时检查 after 的版本）
+     * @param before    修改前的实体类对象实例
+     * @param after     修改后的实体类对象实例
+     * @return  没有变化时不写入并返回0
+     */
+    public static int updateChanged(Object before, Object after) {
+        return updateChanged(after, EntityCodecs.ofEntity(after).toRowUpdateChange(before, after));
+    }
 
-        // 1、构建更新的对象
-        RowUpdateChange rowUpdateChange = getRowUpdateChange(obj, aliasBasicInfo);
+    private static int updateChanged(Object obj, RowUpdateChange rowUpdateChange) {
+        if (rowUpdateChange.getColumnsToUpdate().isEmpty()) {
+            return 0;
+        }
+        int num = updateRow(withCondition(obj, rowUpdateChange));
+        if (num > 0) {
+            advanceVersion(obj);
+        }
+        return num;
+    }
 
-        // 2、更新
+    /**
+     * 更新一行
+     * @param rowUpdateChange   行的更新对象
+     * @return  消耗的写CU（期望不一致时为0）
+     */
+    private static int updateRow(RowUpdateChange rowUpdateChange) {
+        SyncClient client = Store.getInstance().getSyncClient();
         int num = 0;
         try {
             UpdateRowResponse updateRowResponse = client.updateRow(new UpdateRowRequest(rowUpdateChange));
@@ -125,185 +117,284 @@ public class TableStoreUtils {
     }
 
     /**
-     * 获取 {@link RowUpdateChange}  行的更新对象（只会更新不为空的字段）
-     * @param obj            实体类对象实例
-     * @param tableInfo    {@link TableInfo}
-     * @return
+     * 服务端原子自增（不需要先读，并发安全，期望行存在）
+     * @param obj       实体类对象实例（只使用主键）
+     * @param field     整型的字段名（例如：bidNumber）
+     * @param delta     增量（可以为负数）
+     * @return  自增后的值（行不存在时为空）
+     */
+    public static Long increment(Object obj, String field, long delta) {
+        Map<String, Long> result = increment(obj, Collections.singletonMap(field, delta));
+        return result.get(field);
+    }
+
+    /**
+     * 服务端原子自增多个字段（一次请求，不需要先读，并发安全，期望行存在）
+     * @param obj       实体类对象实例（只使用主键）
+     * @param deltas    字段名 -> 增量（可以为负数）
+     * @return  字段名 -> 自增后的值（行不存在时为空集合）
      */
-    private static RowUpdateChange getRowUpdateChange(Object obj, TableInfo tableInfo) {
-        JSONObject jsonObject = (JSONObject) JSON.toJSON(obj);
+    public static Map<String, Long> increment(Object obj, Map<String, Long> deltas) {
+        EntityCodec<Object> codec = EntityCodecs.ofEntity(obj);
+        SyncClient client = Store.getInstance().getSyncClient();
 
-        // 1、构造主键
-        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
-        List<String> primaryKeyList = tableInfo.getPrimaryKey();
-        for (String key : primaryKeyList) {
-            Object value = jsonObject.get(CommonUtils.underlineToHump(key));
-            if (value.getClass().getSimpleName().equals("Long")) {
-                primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value));
-            } else {
-                primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value));
+        // 1、构建自增的对象（返回自增后的值）
+        RowUpdateChange rowUpdateChange = codec.toIncrementChange(obj, deltas);
+        rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
+        rowUpdateChange.setReturnType(ReturnType.RT_AFTER_MODIFY);
+        for (String field : deltas.keySet()) {
+            rowUpdateChange.addReturnColumn(codec.counterColumnName(field));
+        }
+
+        // 2、自增
+        Row row;
+        try {
+            row = client.updateRow(new UpdateRowRequest(rowUpdateChange)).getRow();
+        } catch (TableStoreException e) {
+            if ("OTSConditionCheckFail".equals(e.getErrorCode())) {     // 行不存在
+                return Collections.emptyMap();
             }
+            throw e;
         }
-        PrimaryKey primaryKey = primaryKeyBuilder.build();
-
-        // 2、设置其他属性
-        RowUpdateChange rowUpdateChange = new RowUpdateChange(tableInfo.getTableName(), primaryKey);
-        for (Map.Entry<String, Object> map : jsonObject.entrySet()) {
-            String key = map.getKey();
-            Object value = map.getValue();
-            key = CommonUtils.humpToUnderline(key);     // 驼峰转下划线
-            if (!primaryKeyList.contains(key) && value != null) {       // 非主键 非空 判断
-                if (value.getClass().getSimpleName().equals("String")) {      // 待完善 其他类型当成字符串处理，目前是够用的
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromString((String) value)));
-                } else if (value.getClass().getSimpleName().equals("Integer")) {
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromLong((Integer) value)));
-                } else if (value.getClass().getSimpleName().equals("Long")) {      // 待完善 其他类型当成字符串处理，目前是够用的
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromLong((Long) value)));
-                } else if (value.getClass().getSimpleName().equals("Double")) {
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromDouble(Double.valueOf(value.toString()))));
-                } else if (value.getClass().getSimpleName().equals("Boolean")) {
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromBoolean(Boolean.valueOf(value.toString()))));
-                } else if (value.getClass().getSimpleName().equals("Date"))  {
-                    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                    String format = sdf.format(value);
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromString(format)));
-                } else if (value.toString().matches("^\\[.*\\]$")) { // json数组，ots只支持json数组的嵌套数据类型，需要把驼峰法转成下划线再入库
-                    String text = JSON.toJSONString(value, serializeConfig);
-                    rowUpdateChange.put(new Column(key, ColumnValue.fromString(text)));
-                }
+
+        // 3、自增后的值
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (String field : deltas.keySet()) {
+            Column column = row == null ? null : row.getLatestColumn(codec.counterColumnName(field));
+            if (column != null) {
+                result.put(field, column.getValue().asLong());
             }
         }
-        Condition condition = new Condition(RowExistenceExpectation.EXPECT_EXIST);
-        rowUpdateChange.setCondition(condition);
+        return result;
+    }
+
+    /**
+     * 批量服务端原子自增（按 200行/4MB 切分，分批并发执行，期望行存在）
+     * @param list      实体类对象实例集合（只使用主键）
+     * @param field     整型的字段名（例如：bidNumber）
+     * @param delta     增量（可以为负数）
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
+     */
+    public static BatchResult batchIncrement(List<?> list, String field, long delta) {
+        return batchIncrement(Store.getInstance().getSyncClient(), list, field, delta);
+    }
+
+    /**
+     * 使用指定的客户端批量服务端原子自增（自增不是幂等的：只重试服务端明确没有执行的行，
+     * 超时、网络错误等结果不确定的行不重试，以原来的错误码返回，需要调用方读取后确认）
+     * @param client    客户端
+     * @param list      实体类对象实例集合（只使用主键）
+     * @param field     整型的字段名（例如：bidNumber）
+     * @param delta     增量（可以为负数）
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
+     */
+    public static BatchResult batchIncrement(SyncClientInterface client, List<?> list, String field, long delta) {
+        if (list == null) {
+            return new BatchResult(Collections.emptyList());
+        }
+        List<RowChange> rowChanges = new ArrayList<>(list.size());
+        for (Object obj : list) {
+            RowUpdateChange rowUpdateChange = EntityCodecs.ofEntity(obj).toIncrementChange(obj, Collections.singletonMap(field, delta));
+            rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
+            rowChanges.add(rowUpdateChange);
+        }
+        return BatchRowWriter.write(client, rowChanges);
+    }
+
+    /**
+     * 获取 {@link RowUpdateChange}  行的更新对象（只会更新不为空的字段）
+     * @param obj            实体类对象实例
+     * @return
+     */
+    static RowUpdateChange getRowUpdateChange(Object obj) {
+        return withCondition(obj, EntityCodecs.ofEntity(obj).toRowUpdateChange(obj));
+    }
+
+    /**
+     * 设置更新的条件（期望行存在，有版本列时同时检查版本并写入 版本+1）
+     */
+    private static RowUpdateChange withCondition(Object obj, RowUpdateChange rowUpdateChange) {
+        EntityCodec<Object> codec = EntityCodecs.ofEntity(obj);
+        if (codec.isVersioned()) {
+            return codec.applyVersion(rowUpdateChange, obj);
+        }
+        rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
         return rowUpdateChange;
     }
 
+    /**
+     * 更新成功后实体的版本加1（没有版本列时不处理）
+     */
+    static void advanceVersion(Object obj) {
+        EntityCodec<Object> codec = EntityCodecs.ofEntity(obj);
+        if (codec.isVersioned()) {
+            codec.advanceVersion(obj);
+        }
+    }
+
     /**
      * 获取 {@link RowDeleteChange}  行的删除对象
      * @param obj           实体类对象实例
-     * @param tableInfo    {@link TableInfo}
      * @return
      */
-    private static RowDeleteChange getRowDeleteChange(Object obj, TableInfo tableInfo) {
-        JSONObject jsonObject = (JSONObject) JSON.toJSON(obj);
+    static RowDeleteChange getRowDeleteChange(Object obj) {
+        return EntityCodecs.ofEntity(obj).toRowDeleteChange(obj);
+    }
 
-        // 1、构造主键
-        PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
-        List<String> primaryKeyList = tableInfo.getPrimaryKey();
-        for (String key : primaryKeyList) {
-            Object value = jsonObject.get(CommonUtils.underlineToHump(key));
-            if (value.getClass().getSimpleName().equals("Long")) {
-                primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value));
-            } else {
-                primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value));
-            }
+    /**
+     * 获取 {@link RowPutChange}  行的写入对象（和 insert 的列映射一致）
+     * @param obj           实体类对象实例
+     * @param createOnly    是否只新增（期望行不存在，存在时该行失败且错误码为 OTSConditionCheckFail）
+     * @return
+     */
+    private static RowPutChange getRowPutChange(Object obj, boolean createOnly) {
+        RowPutChange rowPutChange = EntityCodecs.ofEntity(obj).toRowPutChange(obj);
+        if (createOnly) {
+            rowPutChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_NOT_EXIST));
         }
-        PrimaryKey primaryKey = primaryKeyBuilder.build();
-
-        RowDeleteChange rowDeleteChange = new RowDeleteChange(tableInfo.getTableName(), primaryKey);
-        return rowDeleteChange;
+        return rowPutChange;
     }
 
     /**
-     * 根据主键批量更新
+     * 批量新增（如果该记录存在则完成覆盖更新，失败的行只记录日志）
      * @param list  实体类对象实例集合
-     * @return
+     * @return  成功的行数
      */
-    public static int batchUpdate(List list) {
-        int num = 0;
-        if (list != null) {
-            List<List> batches = Lists.partition(list, 200);
-            for (List batch : batches) {
-                num += batchUpdateFor200(batch);
-            }
+    public static int batchInsert(List<?> list) {
+        return batchInsert(list, false);
+    }
+
+    /**
+     * 批量新增（失败的行只记录日志，需要每行的状态请使用 {@link #batchInsertForResult(List, boolean)}）
+     * @param list          实体类对象实例集合
+     * @param createOnly    是否只新增（已经存在的行不覆盖，记录为失败）
+     * @return  成功的行数
+     */
+    public static int batchInsert(List<?> list, boolean createOnly) {
+        return list == null ? 0 : logFailed(batchInsertForResult(list, createOnly)).getSucceedCount();
+    }
+
+    /**
+     * 批量新增
+     * @param list          实体类对象实例集合
+     * @param createOnly    是否只新增（已经存在的行不覆盖，记录为失败）
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
+     */
+    public static BatchResult batchInsertForResult(List<?> list, boolean createOnly) {
+        return batchInsertForResult(Store.getInstance().getSyncClient(), list, createOnly);
+    }
+
+    /**
+     * 使用指定的客户端批量新增
+     * @param client        客户端
+     * @param list          实体类对象实例集合
+     * @param createOnly    是否只新增（已经存在的行不覆盖，记录为失败）
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
+     */
+    public static BatchResult batchInsertForResult(SyncClientInterface client, List<?> list, boolean createOnly) {
+        if (list == null) {
+            return new BatchResult(Collections.emptyList());
         }
-        return num;
+        List<RowChange> rowChanges = new ArrayList<>(list.size());
+        for (Object obj : list) {
+            rowChanges.add(getRowPutChange(obj, createOnly));
+        }
+        return BatchRowWriter.write(client, rowChanges);
     }
 
     /**
-     * 批量更新不为空的字段（ps：一次不能超过200）
+     * 根据主键批量更新（失败的行只记录日志，需要每行的状态请使用 {@link #batchUpdateForResult(List)}）
      * @param list  实体类对象实例集合
-     * @return
+     * @return  成功的行数
      */
-    private static int batchUpdateFor200(List list) {
-        int num = 0;
-        if (list != null && list.size() > 0) {
-            // 获取表的配置信息
-            TableInfo basicInfo = CommonUtils.getTableInfo(list.get(0));
-            SyncClient client = Store.getInstance().getSyncClient();
+    public static int batchUpdate(List<?> list) {
+        return list == null ? 0 : logFailed(batchUpdateForResult(list)).getSucceedCount();
+    }
 
-            // 1、构建的对象
-            BatchWriteRowRequest batchWriteRowRequest = new BatchWriteRowRequest();
-            for (Object obj : list) {
-                RowUpdateChange rowUpdateChange = getRowUpdateChange(obj, basicInfo);
-                batchWriteRowRequest.addRowChange(rowUpdateChange);
-            }
+    /**
+     * 根据主键批量更新（有版本列时每行单独检查版本，成功的行实体的版本加1）
+     * @param list  实体类对象实例集合
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行，行不存在或者版本冲突的行 {@link BatchResult.RowStatus#isConflict()}，
+     *          超时等结果不确定的行 {@link BatchResult.RowStatus#isUnknownOutcome()}，不会重试，版本也不加1，需要重新读取确认）
+     */
+    public static BatchResult batchUpdateForResult(List<?> list) {
+        return batchUpdateForResult(Store.getInstance().getSyncClient(), list);
+    }
 
-            // 2、更新
-            try {
-                BatchWriteRowResponse response = client.batchWriteRow(batchWriteRowRequest);
-                num = response.getSucceedRows().size();
-            }catch (TableStoreException e){
-                if ("OTSConditionCheckFail".equals(e.getErrorCode())) {     // 期望不一致返回 num=0即可
-                    return 0;
-                } else {
-                    e.printStackTrace();
-                    throw e;
-                }
+    /**
+     * 使用指定的客户端根据主键批量更新（有版本列时每行单独检查版本，成功的行实体的版本加1）
+     * @param client    客户端
+     * @param list      实体类对象实例集合
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行，行不存在或者版本冲突的行 {@link BatchResult.RowStatus#isConflict()}，
+     *          超时等结果不确定的行 {@link BatchResult.RowStatus#isUnknownOutcome()}，不会重试，版本也不加1，需要重新读取确认）
+     */
+    public static BatchResult batchUpdateForResult(SyncClientInterface client, List<?> list) {
+        if (list == null) {
+            return new BatchResult(Collections.emptyList());
+        }
+        List<RowChange> rowChanges = new ArrayList<>(list.size());
+        for (Object obj : list) {
+            rowChanges.add(getRowUpdateChange(obj));
+        }
+        BatchResult result = BatchRowWriter.write(client, rowChanges);
+        for (BatchResult.RowStatus row : result.getRows()) {
+            if (row.isSucceed()) {
+                advanceVersion(list.get(row.getIndex()));
             }
         }
-        return num;
+        return result;
+    }
+
+    /**
+     * 根据主键批量删除（失败的行只记录日志，需要每行的状态请使用 {@link #batchDeleteForResult(List)}）
+     * @param list  实体类对象实例集合
+     * @return  成功的行数
+     */
+    public static int batchDelete(List<?> list) {
+        return list == null ? 0 : logFailed(batchDeleteForResult(list)).getSucceedCount();
     }
 
     /**
      * 根据主键批量删除
      * @param list  实体类对象实例集合
-     * @return
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
      */
-    public static int batchDelete(List list) {
-        int num = 0;
-        if (list != null) {
-            List<List> batches = Lists.partition(list, 200);
-            for (List batch : batches) {
-                num += batchDeleteFor200(batch);
-            }
-        }
-        return num;
+    public static BatchResult batchDeleteForResult(List<?> list) {
+        return batchDeleteForResult(Store.getInstance().getSyncClient(), list);
     }
 
     /**
-     * 根据主键批量删除（一次最多删除200）
-     * @param list    实体类对象实例集合
-     * @return
+     * 使用指定的客户端根据主键批量删除
+     * @param client    客户端
+     * @param list      实体类对象实例集合
+     * @return  每行的状态（和 list 的顺序一致，list 为空时没有行）
      */
-    private static int batchDeleteFor200(List list) {
-        int num = 0;
-        if (list != null && list.size() > 0) {
-            // 获取表的配置信息
-            TableInfo tableInfo = CommonUtils.getTableInfo(list.get(0));
-            SyncClient client = Store.getInstance().getSyncClient();
+    public static BatchResult batchDeleteForResult(SyncClientInterface client, List<?> list) {
+        if (list == null) {
+            return new BatchResult(Collections.emptyList());
+        }
+        List<RowChange> rowChanges = new ArrayList<>(list.size());
+        for (Object obj : list) {
+            rowChanges.add(getRowDeleteChange(obj));
+        }
+        return BatchRowWriter.write(client, rowChanges);
+    }
 
-            // 1、构建删除对象
-            BatchWriteRowRequest batchWriteRowRequest = new BatchWriteRowRequest();
-            for (Object obj : list) {
-                RowDeleteChange rowDeleteChange = getRowDeleteChange(obj, tableInfo);
-                batchWriteRowRequest.addRowChange(rowDeleteChange);
-            }
+    /**
+     * 批量写入任意的行变更（按 200行/4MB 切分，分批并发执行，可重试的失败行单独重试）
+     * @param rowChanges    行变更集合
+     * @return  每行的状态（和 rowChanges 的顺序一致）
+     */
+    public static BatchResult batchWriteRow(List<RowChange> rowChanges) {
+        return BatchRowWriter.write(Store.getInstance().getSyncClient(), rowChanges);
+    }
 
-            // 2、删除
-            try {
-                BatchWriteRowResponse response = client.batchWriteRow(batchWriteRowRequest);
-                num = response.getSucceedRows().size();
-            }catch (TableStoreException e){
-                if ("OTSConditionCheckFail".equals(e.getErrorCode())) {     // 期望不一致返回 num=0即可
-                    return 0;
-                } else {
-                    e.printStackTrace();
-                    throw e;
-                }
-            }
+    private static BatchResult logFailed(BatchResult result) {
+        if (!result.isAllSucceed()) {
+            List<BatchResult.RowStatus> failedRows = result.getFailedRows();
+            log.warn("批量写入失败{}行，第一行：{}", failedRows.size(), failedRows.get(0));
         }
-        return num;
+        return result;
     }
 
     /**
@@ -311,12 +402,10 @@ public class TableStoreUtils {
      * @param obj   实体类对象实例
      */
     public static int delete(Object obj) {
-        // 获取表的配置信息
-        TableInfo tableInfo = CommonUtils.getTableInfo(obj);
         SyncClient client = Store.getInstance().getSyncClient();
 
         // 1、构建删除对象
-        RowDeleteChange rowDeleteChange = getRowDeleteChange(obj, tableInfo);
+        RowDeleteChange rowDeleteChange = getRowDeleteChange(obj);
 
 
         // 2、删除
@@ -339,23 +428,18 @@ public class TableStoreUtils {
      * 通过主键批量获取
      * @param list           实体类对象实例集合
      * @param clazz          实体类
-     * @param columnsToGet  添加要读取的列集合（默认查全部）
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
      * @param <T>
      * @return
      */
     public static <T> List<T> batchGetRow(List<T> list , Class<T> clazz, Collection<String> columnsToGet) {
-        List<T> result = new LinkedList<>();
-        if (list != null) {
-            List<List<T>> batches = Lists.partition(list, 100);     // 因为ots最大能支持100所以分批处理了
-            for (List<T> batch : batches) {
-                result.addAll(batchGetRowFor100(batch, clazz, columnsToGet));
-            }
-        }
-        return result;
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        boolean noColumns = columnsToGet == null || columnsToGet.isEmpty();
+        return batchGetRow(list, noColumns ? codec.defaultProjection() : codec.include(columnsToGet));
     }
 
     /**
-     * 通过主键批量获取
+     * 通过主键批量获取（排除 alias.ignoreColumn 配置的字段）
      * @param list           实体类对象实例集合
      * @param clazz          实体类
      * @param <T>
@@ -366,73 +450,88 @@ public class TableStoreUtils {
     }
 
     /**
-     * 通过主键批量获取（list最多100，否则报错）
+     * 通过主键批量获取
      * @param list           实体类对象实例集合
      * @param clazz          实体类
-     * @param columnsToGet  添加要读取的列集合（默认查全部）
+     * @param ignoreColumn  是否需要根据 alias.ignoreColumn 配置的来忽略字段（false 时查全部）
      * @param <T>
      * @return
      */
-    private static <T> List<T> batchGetRowFor100(List<T> list , Class<T> clazz, Collection<String> columnsToGet) {
-        // 获取表的配置信息
-        TableInfo tableInfo = CommonUtils.getTableInfo(list.get(0));
-        SyncClient client = Store.getInstance().getSyncClient();
-
-        // 1、构造主键
-        MultiRowQueryCriteria multiRowQueryCriteria = new MultiRowQueryCriteria(tableInfo.getTableName());
-        for (Object obj : list) {
-            JSONObject jsonObject = (JSONObject) JSON.toJSON(obj);
-            PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
-            List<String> primaryKeyList = tableInfo.getPrimaryKey();
-            for (String key : primaryKeyList) {
-                Object value = jsonObject.get(CommonUtils.underlineToHump(key));
-                if (value.getClass().getSimpleName().equals("Long")) {
-                    primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value));
-                } else {
-                    primaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value));
-                }
-            }
-            PrimaryKey primaryKey = primaryKeyBuilder.build();
-            multiRowQueryCriteria.addRow(primaryKey);
-        }
+    public static <T> List<T> batchGetRow(List<T> list , Class<T> clazz, boolean ignoreColumn) {
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        return batchGetRow(list, ignoreColumn ? codec.defaultProjection() : codec.include(null));
+    }
 
-        // 2、去最大版本，还有需要获取的字段
-        BatchGetRowRequest batchGetRowRequest = new BatchGetRowRequest();
-        // batchGetRow支持读取多个表的数据， 一个multiRowQueryCriteria对应一个表的查询条件，可以添加多个multiRowQueryCriteria.
-        multiRowQueryCriteria.setMaxVersions(1);
-        if (columnsToGet != null && columnsToGet.size() > 0) {
-            multiRowQueryCriteria.addColumnsToGet(columnsToGet);
-        }
-        batchGetRowRequest.addMultiRowQueryCriteria(multiRowQueryCriteria);
+    /**
+     * 通过主键批量获取（结果和 list 一一对应，不存在的行为空，排除 alias.ignoreColumn 配置的字段）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> List<T> batchGetRowAligned(List<T> list , Class<T> clazz) {
+        return batchGetRowAligned(list, clazz, null);
+    }
 
-        // 3、获取
-        BatchGetRowResponse batchGetRowResponse = client.batchGetRow(batchGetRowRequest);
-        if (!batchGetRowResponse.isAllSucceed()) {
-            for (BatchGetRowResponse.RowResult rowResult : batchGetRowResponse.getFailedRows()) {
-                log.warn("失败的行：" + batchGetRowRequest.getPrimaryKey(rowResult.getTableName(), rowResult.getIndex()));
-                log.warn("失败原因：" + rowResult.getError());
+    /**
+     * 通过主键批量获取（结果和 list 一一对应，不存在的行为空）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
+     * @param <T>
+     * @return
+     */
+    public static <T> List<T> batchGetRowAligned(List<T> list , Class<T> clazz, Collection<String> columnsToGet) {
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
+        boolean noColumns = columnsToGet == null || columnsToGet.isEmpty();
+        Projection<T> projection = noColumns ? codec.defaultProjection() : codec.include(columnsToGet);
+        List<T> result = new ArrayList<>(list == null ? 0 : list.size());
+        if (list != null) {
+            for (Row row : batchGetRows(list, projection)) {
+                result.add(row == null ? null : projection.decode(row));
             }
-
-//            /**
-//             * 可以通过createRequestForRetry方法再构造一个请求对失败的行进行重试。这里只给出构造重试请求的部分。
-//             * 推荐的重试方法是使用SDK的自定义重试策略功能，支持对batch操作的部分行错误进行重试。设定重试策略后， 调用接口处即不需要增加重试代码.
-//             */
-//            BatchGetRowRequest retryRequest = batchGetRowRequest.createRequestForRetry(batchGetRowResponse.getFailedRows());
         }
+        return result;
+    }
 
-        List<T> result = new LinkedList<>();
-        List<BatchGetRowResponse.RowResult> succeedRows = batchGetRowResponse.getSucceedRows();
-        for (BatchGetRowResponse.RowResult rowResult : succeedRows) {
-            Row row = rowResult.getRow();
-            if (row != null) {
-                result.add(CommonUtils.rowToEntity(row, clazz));
+    /**
+     * 通过主键批量获取
+     * @param list          实体类对象实例集合
+     * @param projection    列投影
+     * @param <T>
+     * @return
+     */
+    private static <T> List<T> batchGetRow(List<T> list, Projection<T> projection) {
+        List<T> result = new ArrayList<>(list == null ? 0 : list.size());
+        if (list != null) {
+            for (Row row : batchGetRows(list, projection)) {
+                if (row != null) {
+                    result.add(projection.decode(row));
+                }
             }
         }
         return result;
     }
 
     /**
-     * 根据主键获取一行记录
+     * 通过主键批量获取行（因为ots最大能支持100所以分批处理了，并发执行，可重试的失败行单独重试）
+     * @param list          实体类对象实例集合
+     * @param projection    列投影
+     * @param <T>
+     * @return  和 list 一一对应的行（不存在或者失败的为空）
+     */
+    private static <T> Row[] batchGetRows(List<T> list, Projection<T> projection) {
+        EntityCodec<T> codec = projection.getCodec();
+        List<PrimaryKey> primaryKeys = new ArrayList<>(list.size());
+        for (T obj : list) {
+            primaryKeys.add(codec.toPrimaryKey(obj));
+        }
+        return BatchRowReader.read(Store.getInstance().getSyncClient(), codec.getTableName(), primaryKeys,
+                projection.isReturnAll() ? null : projection.getColumns());
+    }
+
+    /**
+     * 根据主键获取一行记录（排除 alias.ignoreColumn 配置的字段）
      * @param entity    实体类对象实例
      * @param clazz     实体类
      * @param <T>
@@ -446,16 +545,33 @@ public class TableStoreUtils {
      * 根据主键获取一行记录
      * @param entity    实体类对象实例
      * @param clazz     实体类
-     * @param columnsToGet  添加要读取的列集合（默认查全部）
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
      * @param <T>
      * @return
      */
     public static <T> T get(T entity, Class<T> clazz, Collection<String> columnsToGet) {
         T t = null;
         if (entity != null) {
-            List<T> list = new ArrayList<>();
-            list.add(entity);
-            List<T> result = batchGetRow(list, clazz, columnsToGet);
+            List<T> result = batchGetRow(Collections.singletonList(entity), clazz, columnsToGet);
+            if (result != null && result.size() > 0) {
+                t = result.get(0);
+            }
+        }
+        return t;
+    }
+
+    /**
+     * 根据主键获取一行记录
+     * @param entity        实体类对象实例
+     * @param clazz         实体类
+     * @param ignoreColumn  是否需要根据 alias.ignoreColumn 配置的来忽略字段（false 时查全部）
+     * @param <T>
+     * @return
+     */
+    public static <T> T get(T entity, Class<T> clazz, boolean ignoreColumn) {
+        T t = null;
+        if (entity != null) {
+            List<T> result = batchGetRow(Collections.singletonList(entity), clazz, ignoreColumn);
             if (result != null && result.size() > 0) {
                 t = result.get(0);
             }
@@ -463,12 +579,77 @@ public class TableStoreUtils {
         return t;
     }
 
+    /**
+     * 根据主键获取一行记录，并记录快照（之后用 {@link #updateChanged(Object)} 只更新变化的字段）
+     * @param entity    实体类对象实例
+     * @param clazz     实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> T getForUpdate(T entity, Class<T> clazz) {
+        T t = get(entity, clazz);
+        if (t != null) {
+            EntitySnapshots.record(t);
+        }
+        return t;
+    }
+
+    /**
+     * 通过主键批量获取，并记录每个对象的快照（之后用 {@link #updateChanged(Object)} 只更新变化的字段）
+     * @param list           实体类对象实例集合
+     * @param clazz          实体类
+     * @param <T>
+     * @return
+     */
+    public static <T> List<T> batchGetRowForUpdate(List<T> list , Class<T> clazz) {
+        List<T> result = batchGetRow(list, clazz);
+        for (T t : result) {
+            EntitySnapshots.record(t);
+        }
+        return result;
+    }
+
+    /**
+     * 按需获取 alias.ignoreColumn 配置的大字段，并合并到已有的对象
+     * @param entity    实体类对象实例（主键不能为空）
+     * @param clazz     实体类
+     * @param <T>
+     * @return  传入的对象
+     */
+    public static <T> T fetchHeavy(T entity, Class<T> clazz) {
+        if (entity != null) {
+            fetchHeavy(Collections.singletonList(entity), clazz);
+        }
+        return entity;
+    }
+
+    /**
+     * 按需批量获取 alias.ignoreColumn 配置的大字段，并合并到已有的对象
+     * @param list      实体类对象实例集合（主键不能为空）
+     * @param clazz     实体类
+     * @param <T>
+     * @return  传入的集合
+     */
+    public static <T> List<T> fetchHeavy(List<T> list, Class<T> clazz) {
+        Projection<T> projection = EntityCodecs.of(clazz).heavyProjection();
+        if (list == null || projection == null) {   // 没有配置 ignoreColumn 时不需要补全
+            return list;
+        }
+        Row[] rows = batchGetRows(list, projection);     // 和 list 一一对应
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i] != null) {
+                projection.merge(list.get(i), rows[i]);
+            }
+        }
+        return list;
+    }
+
     /**
      * 根据二级索引查找（ps：只支持一个，即第一个不为空的二级索引）
      * 因为其他字段没有，所以反查主表
      * @param entity         实体类对象实例
      * @param clazz          实体类
-     * @param columnsToGet  添加要读取的列集合（默认查全部）
+     * @param columnsToGet  添加要读取的列集合（为空时排除 alias.ignoreColumn 配置的字段）
      * @param <T>
      * @return
      */
@@ -490,9 +671,9 @@ public class TableStoreUtils {
     public static <T> List<T> searchBysecondaryIndex(T entity,  Class<T> clazz, Collection<String> columnsToGet, int limit) {
         List<T> result = new LinkedList<>();
         // 获取表的配置信息
-        TableInfo tableInfo = CommonUtils.getTableInfo(clazz);
+        TableMetadata tableMetadata = TableMetadataRegistry.get(clazz);
         SyncClient client = Store.getInstance().getSyncClient();
-        JSONObject jsonObject = (JSONObject) JSON.toJSON(entity);
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
 
 
         // 1、设置起始主键/结束主键
@@ -501,11 +682,10 @@ public class TableStoreUtils {
 
         // 1.1、设置二级索引表PK（查询时 二级索引表的PK要放在主表之前，要不然会报错）
         RangeRowQueryCriteria rangeRowQueryCriteria = null;
-        List<String> secondaryIndexList = tableInfo.getSecondaryIndex();
         String secondaryIndexName = "";     // 当前需要查询的二级索引
-        for (String secondaryIndex : secondaryIndexList) {
-            String key = secondaryIndex.replace(tableInfo.getTableName() + "_index2_", "");
-            Object value = jsonObject.get(CommonUtils.underlineToHump(key));
+        for (TableMetadata.SecondaryIndex secondaryIndex : tableMetadata.getSecondaryIndexes()) {
+            String key = secondaryIndex.getColumn();
+            Object value = codec.getValue(entity, key);
             if (value != null) {
                 if (value.getClass().getSimpleName().equals("Long")) {
                     startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value)); // 索引表PK最小值。
@@ -514,15 +694,15 @@ public class TableStoreUtils {
                     startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value)); // 索引表PK最小值。
                     endPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value)); // 索引表PK最大值。
                 }
-                rangeRowQueryCriteria = new RangeRowQueryCriteria(secondaryIndex);
+                rangeRowQueryCriteria = new RangeRowQueryCriteria(secondaryIndex.getIndexName());
                 secondaryIndexName = key;
                 break;
             }
         }
 
         // 1.2、设置主表PK（任意范围）
-        List<String> primaryKeyList = tableInfo.getPrimaryKey();
-        for (String key : primaryKeyList) {
+        for (TableMetadata.KeyColumn keyColumn : tableMetadata.getPrimaryKeys()) {
+            String key = keyColumn.getName();
             if (!key.equals(secondaryIndexName)) {  // 排除当前正在查询的二级索引
                 startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.INF_MIN); // 主表PK最小值。
                 endPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.INF_MAX); // 主表PK最大值。
@@ -553,12 +733,12 @@ public class TableStoreUtils {
                             completed = true;
                             break;
                         } else {
-                            result.add(CommonUtils.rowToEntity(row, clazz));
+                            result.add(codec.decode(row));
                         }
                     }
                 } else {
                     for (Row row : rows) {
-                        result.add(CommonUtils.rowToEntity(row, clazz));
+                        result.add(codec.decode(row));
                     }
                 }
 
@@ -587,9 +767,9 @@ public class TableStoreUtils {
     public static <T> int countBysecondaryIndex(T entity,  Class<T> clazz) {
         int num = 0;    // 测试用的
         // 获取表的配置信息
-        TableInfo tableInfo = CommonUtils.getTableInfo(clazz);
+        TableMetadata tableMetadata = TableMetadataRegistry.get(clazz);
         SyncClient client = Store.getInstance().getSyncClient();
-        JSONObject jsonObject = (JSONObject) JSON.toJSON(entity);
+        EntityCodec<T> codec = EntityCodecs.of(clazz);
 
 
         // 1、设置起始主键/结束主键
@@ -598,11 +778,10 @@ public class TableStoreUtils {
 
         // 1.1、设置二级索引表PK（查询时 二级索引表的PK要放在主表之前，要不然会报错）
         RangeRowQueryCriteria rangeRowQueryCriteria = null;
-        List<String> secondaryIndexList = tableInfo.getSecondaryIndex();
         String secondaryIndexName = "";     // 当前需要查询的二级索引
-        for (String secondaryIndex : secondaryIndexList) {
-            String key = secondaryIndex.replace(tableInfo.getTableName() + "_index2_", "");
-            Object value = jsonObject.get(CommonUtils.underlineToHump(key));
+        for (TableMetadata.SecondaryIndex secondaryIndex : tableMetadata.getSecondaryIndexes()) {
+            String key = secondaryIndex.getColumn();
+            Object value = codec.getValue(entity, key);
             if (value != null) {
                 if (value.getClass().getSimpleName().equals("Long")) {
                     startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromLong((Long) value)); // 索引表PK最小值。
@@ -611,15 +790,15 @@ public class TableStoreUtils {
                     startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value)); // 索引表PK最小值。
                     endPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.fromString((String) value)); // 索引表PK最大值。
                 }
-                rangeRowQueryCriteria = new RangeRowQueryCriteria(secondaryIndex);
+                rangeRowQueryCriteria = new RangeRowQueryCriteria(secondaryIndex.getIndexName());
                 secondaryIndexName = key;
                 break;
             }
         }
 
         // 1.2、设置主表PK（任意范围）
-        List<String> primaryKeyList = tableInfo.getPrimaryKey();
-        for (String key : primaryKeyList) {
+        for (TableMetadata.KeyColumn keyColumn : tableMetadata.getPrimaryKeys()) {
+            String key = keyColumn.getName();
             if (!key.equals(secondaryIndexName)) {  // 排除当前正在查询的二级索引
                 startPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.INF_MIN); // 主表PK最小值。
                 endPrimaryKeyBuilder.addPrimaryKeyColumn(key, PrimaryKeyValue.INF_MAX); // 主表PK最大值。
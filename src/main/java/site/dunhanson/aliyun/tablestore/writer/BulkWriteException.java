@@ -0,0 +1,27 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import lombok.Getter;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 单行写入失败（批量请求中的行错误，例如 OTSConditionCheckFail）
+ */
+@Getter
+public class BulkWriteException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+    /**错误码**/
+    private final String errorCode;
+    /**表名**/
+    private final String tableName;
+    /**主键（PrimaryKey 不能序列化，反序列化后为空）**/
+    private final transient PrimaryKey primaryKey;
+
+    public BulkWriteException(String errorCode, String message, String tableName, PrimaryKey primaryKey) {
+        super(errorCode + "：" + message + "，" + tableName + " " + primaryKey);
+        this.errorCode = errorCode;
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+    }
+}
@@ -0,0 +1,437 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.core.utils.Pair;
+import com.alicloud.openservices.tablestore.model.*;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.utils.BatchRowWriter;
+import site.dunhanson.aliyun.tablestore.utils.Store;
+
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 异步缓冲的批量写入器（多线程写入有界缓冲区，后台线程按 行数/字节数/等待时间 合并成 BatchWriteRow 发送，每行返回一个 {@link CompletableFuture}）
+ * <p>
+ * 服务端明确没有执行的失败行（限流、服务繁忙等）按 {@link site.dunhanson.aliyun.tablestore.utils.RetryPolicy} 重试，
+ * 之后每行的 future 都会完成，超时、网络错误等结果不确定的以原来的错误码失败。
+ * <p>
+ * 配置了预写日志时，行在进入缓冲区前追加到日志，收到结果（成功或者失败）后确认，只有进程在收到结果前崩溃的行会在下次启动时回放。
+ * 日志不保存 {@link ReturnType}（回放的行不返回列），带列条件（例如 {@link com.alicloud.openservices.tablestore.model.condition.SingleColumnValueCondition}）的行变更不能写入日志，提交时抛出 IllegalArgumentException。
+ * 自增（{@link RowUpdateChange.Type#INCREMENT}）不是幂等的，发送后、确认前崩溃时回放会重复计数，所以配置了预写日志时也不能提交，抛出 IllegalArgumentException。
+ */
+@Slf4j
+public class BulkWriter implements AutoCloseable {
+
+    /**线程编号**/
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**客户端**/
+    private final SyncClientInterface client;
+    /**配置**/
+    private final BulkWriterConfig config;
+    /**缓冲区**/
+    private final BlockingQueue<Pending> queue;
+    /**发送批量请求的线程池**/
+    private final ExecutorService executor;
+    /**正在发送的批数**/
+    private final Semaphore inFlight;
+    /**合并缓冲区的后台线程**/
+    private final Thread dispatcher;
+    /**本地预写日志（没有配置时为空）**/
+    private final WriteJournal journal;
+    /**提交和关闭的锁（提交持有读锁，关闭持有写锁，保证关闭后不会有行排在停止标记之后）**/
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    /**是否已经关闭**/
+    private volatile boolean closed;
+
+    /**
+     * 使用默认配置和 {@link Store} 的客户端
+     */
+    public BulkWriter() {
+        this(BulkWriterConfig.builder().build());
+    }
+
+    /**
+     * 使用 {@link Store} 的客户端
+     * @param config    配置
+     */
+    public BulkWriter(BulkWriterConfig config) {
+        this(Store.getInstance().getSyncClient(), config);
+    }
+
+    /**
+     * @param client    客户端
+     * @param config    配置
+     */
+    public BulkWriter(SyncClientInterface client, BulkWriterConfig config) {
+        this.client = client;
+        this.config = config;
+        this.queue = new ArrayBlockingQueue<>(config.getBufferSize());
+        this.inFlight = new Semaphore(config.getParallelism());
+        int number = THREAD_NUMBER.incrementAndGet();
+        this.executor = Executors.newFixedThreadPool(config.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-writer-" + number + "-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.journal = config.getJournalDir() == null ? null
+                : WriteJournal.open(Paths.get(config.getJournalDir()), config.getJournalSegmentSize(), config.isJournalSync());
+        this.dispatcher = new Thread(this::dispatch, "bulk-writer-" + number + "-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+        if (journal != null) {
+            replay();
+        }
+    }
+
+    /**
+     * 回放上次没有确认的日志（重新追加到新的分段后删除旧的分段，至少写入一次）
+     */
+    private void replay() {
+        List<RowChange> rowChanges = journal.recover();
+        if (!rowChanges.isEmpty()) {
+            log.info("回放预写日志：{}行", rowChanges.size());
+        }
+        for (RowChange rowChange : rowChanges) {
+            submit(rowChange).whenComplete((result, e) -> {
+                if (e != null) {
+                    log.warn("回放的行写入失败：{}，{}", rowChange.getPrimaryKey(), e.getMessage());
+                }
+            });
+        }
+        journal.deleteRecovered();
+    }
+
+    /**
+     * 新增（如果该记录存在则完成覆盖更新）
+     * @param obj   实体类对象实例
+     * @return
+     */
+    public CompletableFuture<WriteResult> insert(Object obj) {
+        return submit(EntityCodecs.ofEntity(obj).toRowPutChange(obj));
+    }
+
+    /**
+     * 更新不为空的字段（期望行存在，和 TableStoreUtils.update 一致）
+     * @param obj   实体类对象实例（不能有版本列，异步写入无法在成功后更新实体的版本）
+     * @return
+     */
+    public CompletableFuture<WriteResult> update(Object obj) {
+        EntityCodec<Object> codec = EntityCodecs.ofEntity(obj);
+        if (codec.isVersioned()) {
+            throw new IllegalArgumentException(obj.getClass().getName() + " 有版本列，不能异步批量更新，请使用 TableStoreUtils.update/batchUpdateForResult");
+        }
+        RowUpdateChange rowUpdateChange = codec.toRowUpdateChange(obj);
+        rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
+        return submit(rowUpdateChange);
+    }
+
+    /**
+     * 服务端原子自增（期望行存在，和 TableStoreUtils.batchIncrement 一致；配置了预写日志时抛出 IllegalArgumentException）
+     * @param obj       实体类对象实例（只使用主键）
+     * @param field     整型的字段名
+     * @param delta     增量（可以为负数）
+     * @return
+     */
+    public CompletableFuture<WriteResult> increment(Object obj, String field, long delta) {
+        RowUpdateChange rowUpdateChange = EntityCodecs.ofEntity(obj).toIncrementChange(obj, Collections.singletonMap(field, delta));
+        rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
+        return submit(rowUpdateChange);
+    }
+
+    /**
+     * 根据主键删除
+     * @param obj   实体类对象实例
+     * @return
+     */
+    public CompletableFuture<WriteResult> delete(Object obj) {
+        return submit(EntityCodecs.ofEntity(obj).toRowDeleteChange(obj));
+    }
+
+    /**
+     * 写入任意的行变更（配置了预写日志时先追加到日志，缓冲区满了会阻塞）
+     * @param rowChange     {@link RowPutChange}/{@link RowUpdateChange}/{@link RowDeleteChange}（配置了预写日志时不能带列条件和自增列，ReturnType 不会保存）
+     * @return  行写入成功时完成，行错误时以 {@link BulkWriteException} 异常完成
+     */
+    public CompletableFuture<WriteResult> submit(RowChange rowChange) {
+        if (journal != null && hasIncrement(rowChange)) {
+            throw new IllegalArgumentException("配置了预写日志时不能提交自增列的行变更（回放会重复计数）：" + rowChange.getPrimaryKey());
+        }
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("BulkWriter已经关闭");
+            }
+            Pending pending = new Pending(rowChange, journal == null ? null : journal.append(rowChange), false);
+            try {
+                queue.put(pending);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                pending.completeExceptionally(e);
+            }
+            return pending.future;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 是否有自增列（自增不是幂等的，发送后、确认前崩溃时回放会重复计数）
+     */
+    private static boolean hasIncrement(RowChange rowChange) {
+        if (rowChange instanceof RowUpdateChange) {
+            for (Pair<Column, RowUpdateChange.Type> pair : ((RowUpdateChange) rowChange).getColumnsToUpdate()) {
+                if (pair.getSecond() == RowUpdateChange.Type.INCREMENT) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 立即发送缓冲区的数据，并等待已经提交的行全部完成
+     */
+    public void flush() {
+        mark(false);
+    }
+
+    /**
+     * 放入标记并等待后台线程处理完标记之前的行
+     * @param stop  是否是停止标记（处理完后后台线程退出）
+     */
+    private void mark(boolean stop) {
+        if (!dispatcher.isAlive()) {
+            return;
+        }
+        Pending marker = new Pending(null, null, stop);
+        try {
+            queue.put(marker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        marker.future.join();
+    }
+
+    /**
+     * 发送剩余的数据后关闭（之后不能再写入）
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        // 停止标记排在所有已经提交的行之后，后台线程发送完剩余的行再退出
+        mark(true);
+        try {
+            dispatcher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        // 后台线程异常退出时留在缓冲区的行
+        Pending pending;
+        while ((pending = queue.poll()) != null) {
+            pending.completeExceptionally(new IllegalStateException("BulkWriter已经关闭"));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * 后台线程：合并缓冲区的行，满足任意条件就发送一批
+     */
+    private void dispatch() {
+        Batch batch = new Batch();
+        while (true) {
+            Pending pending;
+            try {
+                if (batch.isEmpty()) {
+                    pending = queue.take();
+                } else {
+                    pending = queue.poll(batch.deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                // 不丢弃已经合并的行
+                send(batch);
+                awaitInFlight();
+                break;
+            }
+            // 1、等待超时
+            if (pending == null) {
+                batch = send(batch);
+                continue;
+            }
+            // 2、flush 或者停止
+            if (pending.rowChange == null) {
+                batch = send(batch);
+                awaitInFlight();
+                pending.future.complete(null);
+                if (pending.stop) {
+                    break;
+                }
+                continue;
+            }
+            // 3、超过字节数或者主键重复（同一批不能有重复的行）时先发送
+            if (!batch.isEmpty() && (batch.bytes + pending.size > config.getMaxBytes() || batch.contains(pending))) {
+                batch = send(batch);
+            }
+            if (batch.isEmpty()) {
+                batch.deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getLingerMillis());
+            }
+            batch.add(pending);
+            // 4、行数或者字节数满了
+            if (batch.rows.size() >= config.getMaxRows() || batch.bytes >= config.getMaxBytes()) {
+                batch = send(batch);
+            }
+        }
+    }
+
+    /**
+     * 提交一批到线程池（正在发送的批数达到上限时阻塞）
+     * @param batch     当前批
+     * @return  新的空批
+     */
+    private Batch send(Batch batch) {
+        if (batch.isEmpty()) {
+            return batch;
+        }
+        inFlight.acquireUninterruptibly();
+        try {
+            executor.execute(() -> {
+                try {
+                    write(batch.rows);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            for (Pending pending : batch.rows) {
+                pending.completeExceptionally(e);
+            }
+        }
+        return new Batch();
+    }
+
+    /**
+     * 等待正在发送的批全部完成
+     */
+    private void awaitInFlight() {
+        inFlight.acquireUninterruptibly(config.getParallelism());
+        inFlight.release(config.getParallelism());
+    }
+
+    /**
+     * 发送一批并完成每一行的 future（可重试的失败行先重试，之后每行都确认日志，调用方看到的结果和日志一致）
+     * @param rows  需要写入的行
+     */
+    private void write(List<Pending> rows) {
+        List<RowChange> rowChanges = new ArrayList<>(rows.size());
+        for (Pending pending : rows) {
+            rowChanges.add(pending.rowChange);
+        }
+        // 1、发送（整个请求失败时每行都记录为失败，超时等结果不确定的不重试）
+        BatchResult result;
+        try {
+            result = BatchRowWriter.write(client, rowChanges);
+        } catch (Exception e) {
+            log.warn("批量写入失败：{}行，{}", rows.size(), e.getMessage());
+            for (Pending pending : rows) {
+                pending.completeExceptionally(e);
+            }
+            return;
+        }
+        // 2、按行完成（成功或者失败都确认日志，只有进程在收到结果前崩溃的行才会回放）
+        for (BatchResult.RowStatus status : result.getRows()) {
+            Pending pending = rows.get(status.getIndex());
+            RowChange rowChange = pending.rowChange;
+            pending.confirm();
+            if (status.isSucceed()) {
+                pending.future.complete(new WriteResult(rowChange.getTableName(), rowChange.getPrimaryKey(),
+                        new ConsumedCapacity(new CapacityUnit(0, status.getWriteCapacityUnit()))));
+            } else {
+                pending.future.completeExceptionally(new BulkWriteException(status.getErrorCode(), status.getErrorMessage(),
+                        rowChange.getTableName(), rowChange.getPrimaryKey()));
+            }
+        }
+    }
+
+    /**
+     * 缓冲区的一行（rowChange为空时是 flush 标记，stop 为 true 时是停止标记）
+     */
+    private final class Pending {
+        private final RowChange rowChange;
+        private final long size;
+        private final WriteJournal.Entry entry;
+        private final boolean stop;
+        private final CompletableFuture<WriteResult> future = new CompletableFuture<>();
+
+        private Pending(RowChange rowChange, WriteJournal.Entry entry, boolean stop) {
+            this.rowChange = rowChange;
+            this.size = rowChange == null ? 0 : rowChange.getDataSize();
+            this.entry = entry;
+            this.stop = stop;
+        }
+
+        /**
+         * 确认日志（没有日志时不处理）
+         */
+        private void confirm() {
+            if (entry != null) {
+                journal.confirm(entry);
+            }
+        }
+
+        /**
+         * 没有发送就失败的行（已经告知调用方失败，确认日志不再回放）
+         */
+        private void completeExceptionally(Throwable e) {
+            confirm();
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 正在合并的一批
+     */
+    private static final class Batch {
+        private final List<Pending> rows = new ArrayList<>();
+        private final Set<List<Object>> keys = new HashSet<>();
+        private long bytes;
+        private long deadline;
+
+        private boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        private boolean contains(Pending pending) {
+            return keys.contains(Arrays.asList(pending.rowChange.getTableName(), pending.rowChange.getPrimaryKey()));
+        }
+
+        private void add(Pending pending) {
+            rows.add(pending);
+            keys.add(Arrays.asList(pending.rowChange.getTableName(), pending.rowChange.getPrimaryKey()));
+            bytes += pending.size;
+        }
+    }
+
+}
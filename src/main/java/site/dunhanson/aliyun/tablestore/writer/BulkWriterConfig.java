@@ -0,0 +1,39 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import site.dunhanson.aliyun.tablestore.constants.Constants;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description {@link BulkWriter} 的配置（满足 行数/字节数/等待时间 任意一个就发送一批）
+ */
+@Getter
+@Builder
+@ToString
+public class BulkWriterConfig {
+    /**每批最多的行数（ots 限制 200）**/
+    @Builder.Default
+    private int maxRows = Constants.BATCH_WRITE_MAX_ROWS;
+    /**每批最多的字节数（ots 限制 4MB）**/
+    @Builder.Default
+    private long maxBytes = Constants.BATCH_MAX_BYTES;
+    /**第一行进入缓冲区后最多等待的毫秒数**/
+    @Builder.Default
+    private long lingerMillis = 10;
+    /**缓冲区的行数（满了之后写入会阻塞）**/
+    @Builder.Default
+    private int bufferSize = 10000;
+    /**同时发送的批数**/
+    @Builder.Default
+    private int parallelism = 4;
+    /**本地预写日志的目录（为空时不写日志，进程崩溃会丢失缓冲区的数据）**/
+    private String journalDir;
+    /**预写日志每个分段的字节数**/
+    @Builder.Default
+    private int journalSegmentSize = 64 * 1024 * 1024;
+    /**预写日志每次追加后是否刷盘（默认只保证进程崩溃不丢）**/
+    private boolean journalSync;
+}
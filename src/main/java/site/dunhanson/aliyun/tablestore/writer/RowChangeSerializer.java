@@ -0,0 +1,231 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.core.utils.Pair;
+import com.alicloud.openservices.tablestore.model.*;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description {@link RowChange} 的二进制序列化（用于 {@link WriteJournal}，只支持行存在性条件，不支持列条件）
+ */
+final class RowChangeSerializer {
+
+    /**行变更的类型**/
+    private static final byte PUT = 1;
+    private static final byte UPDATE = 2;
+    private static final byte DELETE = 3;
+
+    private RowChangeSerializer() {
+
+    }
+
+    /**
+     * 序列化
+     * @param rowChange     行变更
+     * @return
+     */
+    static byte[] serialize(RowChange rowChange) {
+        Condition condition = rowChange.getCondition();
+        if (condition != null && condition.getColumnCondition() != null) {
+            throw new IllegalArgumentException("带列条件的行变更不支持写入日志：" + rowChange.getPrimaryKey());
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rowChange.getDataSize() + 64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            // 1、类型、表名和条件
+            out.writeByte(rowChange instanceof RowPutChange ? PUT : rowChange instanceof RowUpdateChange ? UPDATE : DELETE);
+            out.writeUTF(rowChange.getTableName());
+            out.writeUTF(condition == null ? RowExistenceExpectation.IGNORE.name() : condition.getRowExistenceExpectation().name());
+
+            // 2、主键
+            PrimaryKeyColumn[] primaryKeyColumns = rowChange.getPrimaryKey().getPrimaryKeyColumns();
+            out.writeInt(primaryKeyColumns.length);
+            for (PrimaryKeyColumn column : primaryKeyColumns) {
+                out.writeUTF(column.getName());
+                writePrimaryKeyValue(out, column.getValue());
+            }
+
+            // 3、列
+            if (rowChange instanceof RowPutChange) {
+                List<Column> columns = ((RowPutChange) rowChange).getColumnsToPut();
+                out.writeInt(columns.size());
+                for (Column column : columns) {
+                    writeColumn(out, RowUpdateChange.Type.PUT, column);
+                }
+            } else if (rowChange instanceof RowUpdateChange) {
+                List<Pair<Column, RowUpdateChange.Type>> columns = ((RowUpdateChange) rowChange).getColumnsToUpdate();
+                out.writeInt(columns.size());
+                for (Pair<Column, RowUpdateChange.Type> pair : columns) {
+                    writeColumn(out, pair.getSecond(), pair.getFirst());
+                }
+            } else {
+                out.writeInt(0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 反序列化
+     * @param data  {@link #serialize(RowChange)} 的结果
+     * @return
+     */
+    static RowChange deserialize(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            // 1、类型、表名和条件
+            byte kind = in.readByte();
+            String tableName = in.readUTF();
+            RowExistenceExpectation expectation = RowExistenceExpectation.valueOf(in.readUTF());
+
+            // 2、主键
+            PrimaryKeyBuilder primaryKeyBuilder = PrimaryKeyBuilder.createPrimaryKeyBuilder();
+            int primaryKeySize = in.readInt();
+            for (int i = 0; i < primaryKeySize; i++) {
+                primaryKeyBuilder.addPrimaryKeyColumn(in.readUTF(), readPrimaryKeyValue(in));
+            }
+            PrimaryKey primaryKey = primaryKeyBuilder.build();
+
+            // 3、列
+            RowChange rowChange;
+            int columnSize = in.readInt();
+            if (kind == PUT) {
+                RowPutChange rowPutChange = new RowPutChange(tableName, primaryKey);
+                for (int i = 0; i < columnSize; i++) {
+                    in.readByte();
+                    rowPutChange.addColumn(readColumn(in, true));
+                }
+                rowChange = rowPutChange;
+            } else if (kind == UPDATE) {
+                RowUpdateChange rowUpdateChange = new RowUpdateChange(tableName, primaryKey);
+                for (int i = 0; i < columnSize; i++) {
+                    RowUpdateChange.Type type = RowUpdateChange.Type.values()[in.readByte()];
+                    Column column = readColumn(in, type == RowUpdateChange.Type.PUT || type == RowUpdateChange.Type.INCREMENT);
+                    if (type == RowUpdateChange.Type.PUT) {
+                        rowUpdateChange.put(column);
+                    } else if (type == RowUpdateChange.Type.INCREMENT) {
+                        rowUpdateChange.increment(column);
+                    } else if (type == RowUpdateChange.Type.DELETE) {
+                        rowUpdateChange.deleteColumn(column.getName(), column.getTimestamp());
+                    } else {
+                        rowUpdateChange.deleteColumns(column.getName());
+                    }
+                }
+                rowChange = rowUpdateChange;
+            } else {
+                rowChange = new RowDeleteChange(tableName, primaryKey);
+            }
+            rowChange.setCondition(new Condition(expectation));
+            return rowChange;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeColumn(DataOutputStream out, RowUpdateChange.Type type, Column column) throws IOException {
+        out.writeByte(type.ordinal());
+        out.writeUTF(column.getName());
+        out.writeBoolean(column.hasSetTimestamp());
+        if (column.hasSetTimestamp()) {
+            out.writeLong(column.getTimestamp());
+        }
+        if (type == RowUpdateChange.Type.PUT || type == RowUpdateChange.Type.INCREMENT) {
+            writeColumnValue(out, column.getValue());
+        }
+    }
+
+    private static Column readColumn(DataInputStream in, boolean hasValue) throws IOException {
+        String name = in.readUTF();
+        boolean hasTimestamp = in.readBoolean();
+        long timestamp = hasTimestamp ? in.readLong() : 0;
+        ColumnValue value = hasValue ? readColumnValue(in) : ColumnValue.INTERNAL_NULL_VALUE;
+        return hasTimestamp ? new Column(name, value, timestamp) : new Column(name, value);
+    }
+
+    private static void writeColumnValue(DataOutputStream out, ColumnValue value) throws IOException {
+        out.writeByte(value.getType().ordinal());
+        switch (value.getType()) {
+            case STRING:
+                writeBytes(out, value.asStringInBytes());
+                break;
+            case INTEGER:
+                out.writeLong(value.asLong());
+                break;
+            case BOOLEAN:
+                out.writeBoolean(value.asBoolean());
+                break;
+            case DOUBLE:
+                out.writeDouble(value.asDouble());
+                break;
+            case BINARY:
+                writeBytes(out, value.asBinary());
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的列类型：" + value.getType());
+        }
+    }
+
+    private static ColumnValue readColumnValue(DataInputStream in) throws IOException {
+        ColumnType type = ColumnType.values()[in.readByte()];
+        switch (type) {
+            case STRING:
+                return ColumnValue.fromString(new String(readBytes(in), StandardCharsets.UTF_8));
+            case INTEGER:
+                return ColumnValue.fromLong(in.readLong());
+            case BOOLEAN:
+                return ColumnValue.fromBoolean(in.readBoolean());
+            case DOUBLE:
+                return ColumnValue.fromDouble(in.readDouble());
+            default:
+                return ColumnValue.fromBinary(readBytes(in));
+        }
+    }
+
+    private static void writePrimaryKeyValue(DataOutputStream out, PrimaryKeyValue value) throws IOException {
+        if (value.getType() == null) {     // INF_MIN/INF_MAX/AUTO_INCREMENT
+            throw new IllegalArgumentException("不支持的主键值：" + value);
+        }
+        out.writeByte(value.getType().ordinal());
+        switch (value.getType()) {
+            case STRING:
+                writeBytes(out, value.asStringInBytes());
+                break;
+            case INTEGER:
+                out.writeLong(value.asLong());
+                break;
+            case BINARY:
+                writeBytes(out, value.asBinary());
+                break;
+            default:
+                throw new IllegalArgumentException("不支持的主键类型：" + value.getType());
+        }
+    }
+
+    private static PrimaryKeyValue readPrimaryKeyValue(DataInputStream in) throws IOException {
+        PrimaryKeyType type = PrimaryKeyType.values()[in.readByte()];
+        switch (type) {
+            case STRING:
+                return PrimaryKeyValue.fromString(new String(readBytes(in), StandardCharsets.UTF_8));
+            case INTEGER:
+                return PrimaryKeyValue.fromLong(in.readLong());
+            default:
+                return PrimaryKeyValue.fromBinary(readBytes(in));
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+}
@@ -0,0 +1,253 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.core.utils.Pair;
+import com.alicloud.openservices.tablestore.model.*;
+import lombok.extern.slf4j.Slf4j;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.utils.BatchRowWriter;
+import site.dunhanson.aliyun.tablestore.utils.Store;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 同一主键的更新合并器（时间窗口内对同一行的多次更新合并成一个 {@link RowUpdateChange}，同一列后写的覆盖先写的，窗口结束或者行数超过上限时由后台线程批量发送）
+ */
+@Slf4j
+public class UpdateCoalescer implements AutoCloseable {
+
+    /**线程编号**/
+    private static final AtomicInteger THREAD_NUMBER = new AtomicInteger();
+
+    /**客户端**/
+    private final SyncClientInterface client;
+    /**合并窗口的毫秒数（从该行第一次更新开始计算）**/
+    private final long windowMillis;
+    /**最多合并的行数（超过时由定时线程立即发送全部）**/
+    private final int maxKeys;
+    /**等待发送的行（表名+主键 -> 合并后的列）**/
+    private final ConcurrentHashMap<List<Object>, Pending> pending = new ConcurrentHashMap<>();
+    /**定时发送到期的行**/
+    private final ScheduledExecutorService scheduler;
+    /**是否已经安排了立即发送（行数超过 maxKeys 时交给定时线程发送，不占用提交的线程）**/
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    /**是否已经关闭**/
+    private volatile boolean closed;
+
+    /**
+     * 使用 {@link Store} 的客户端，窗口1秒，最多合并10000行
+     */
+    public UpdateCoalescer() {
+        this(1000);
+    }
+
+    /**
+     * 使用 {@link Store} 的客户端，最多合并10000行
+     * @param windowMillis  合并窗口的毫秒数
+     */
+    public UpdateCoalescer(long windowMillis) {
+        this(Store.getInstance().getSyncClient(), windowMillis, 10000);
+    }
+
+    /**
+     * @param client        客户端
+     * @param windowMillis  合并窗口的毫秒数
+     * @param maxKeys       最多合并的行数
+     */
+    public UpdateCoalescer(SyncClientInterface client, long windowMillis, int maxKeys) {
+        this.client = client;
+        this.windowMillis = windowMillis;
+        this.maxKeys = maxKeys;
+        int number = THREAD_NUMBER.incrementAndGet();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "update-coalescer-" + number);
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, windowMillis / 2);
+        this.scheduler.scheduleWithFixedDelay(this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 更新不为空的字段（期望行存在，和 TableStoreUtils.update 一致）
+     * @param obj   实体类对象实例（不能有版本列，合并后无法逐次检查版本）
+     * @return  合并后的行发送完成时完成（同一窗口内合并的更新共用一个结果）
+     */
+    public CompletableFuture<BatchResult.RowStatus> update(Object obj) {
+        EntityCodec<Object> codec = EntityCodecs.ofEntity(obj);
+        if (codec.isVersioned()) {
+            throw new IllegalArgumentException(obj.getClass().getName() + " 有版本列，不能合并更新，请使用 TableStoreUtils.update");
+        }
+        return submit(codec.toRowUpdateChange(obj));
+    }
+
+    /**
+     * 合并一个行的更新（合并 put 和删除全部版本的列，同一列后写的覆盖先写的；删除单个版本/自增的请直接写入；合并后的行总是期望行存在，不能带其他条件）
+     * @param rowUpdateChange   行的更新对象
+     * @return  合并后的行发送完成时完成（同一窗口内合并的更新共用一个结果）
+     */
+    public CompletableFuture<BatchResult.RowStatus> submit(RowUpdateChange rowUpdateChange) {
+        if (closed) {
+            throw new IllegalStateException("UpdateCoalescer已经关闭");
+        }
+        for (Pair<Column, RowUpdateChange.Type> pair : rowUpdateChange.getColumnsToUpdate()) {
+            if (pair.getSecond() != RowUpdateChange.Type.PUT && pair.getSecond() != RowUpdateChange.Type.DELETE_ALL) {
+                throw new IllegalArgumentException("只能合并put和删除全部版本的列：" + pair.getFirst().getName());
+            }
+        }
+        // 合并时条件会丢失，只接受没有条件（默认的 IGNORE）或者期望行存在
+        Condition condition = rowUpdateChange.getCondition();
+        if (condition != null && (condition.getColumnCondition() != null
+                || condition.getRowExistenceExpectation() == RowExistenceExpectation.EXPECT_NOT_EXIST)) {
+            throw new IllegalArgumentException("只能合并没有条件或者期望行存在的更新：" + rowUpdateChange.getPrimaryKey());
+        }
+        List<Object> key = Arrays.asList(rowUpdateChange.getTableName(), rowUpdateChange.getPrimaryKey());
+        Pending merged = pending.compute(key, (k, current) -> {
+            if (current == null) {
+                current = new Pending(rowUpdateChange.getTableName(), rowUpdateChange.getPrimaryKey());
+            }
+            for (Pair<Column, RowUpdateChange.Type> pair : rowUpdateChange.getColumnsToUpdate()) {
+                current.columns.put(pair.getFirst().getName(), pair);     // 分块列的旧块删除也按列覆盖
+            }
+            return current;
+        });
+        if (pending.size() >= maxKeys && flushScheduled.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(this::flushFull);
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);     // 正在关闭，close 会发送剩余的行
+            }
+        }
+        return merged.future;
+    }
+
+    /**
+     * 立即发送全部等待的行，并等待发送完成
+     */
+    public void flush() {
+        send(drain(Long.MAX_VALUE));
+    }
+
+    /**
+     * 发送剩余的行后关闭（之后不能再写入）
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * 定时线程：行数超过 maxKeys 时发送全部（发送期间新超过的会再安排一次）
+     */
+    private void flushFull() {
+        flushScheduled.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("合并更新发送失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定时任务：发送窗口已经结束的行
+     */
+    private void flushExpired() {
+        try {
+            send(drain(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(windowMillis)));
+        } catch (Exception e) {
+            log.warn("合并更新发送失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取出第一次更新不晚于 createdBefore 的行（取出后新的更新会开始新的窗口）
+     * @param createdBefore     {@link System#nanoTime()} 的时间点
+     * @return
+     */
+    private List<Pending> drain(long createdBefore) {
+        List<Pending> list = new ArrayList<>();
+        for (List<Object> key : pending.keySet()) {
+            pending.computeIfPresent(key, (k, current) -> {
+                if (createdBefore != Long.MAX_VALUE && current.createdNanos - createdBefore > 0) {
+                    return current;
+                }
+                list.add(current);
+                return null;
+            });
+        }
+        return list;
+    }
+
+    /**
+     * 合并后的行批量发送，并完成每一行的 future
+     * @param list  合并后的行
+     */
+    private void send(List<Pending> list) {
+        if (list.isEmpty()) {
+            return;
+        }
+        // 1、构建更新的对象
+        List<RowChange> rowChanges = new ArrayList<>(list.size());
+        for (Pending current : list) {
+            RowUpdateChange rowUpdateChange = new RowUpdateChange(current.tableName, current.primaryKey);
+            for (Pair<Column, RowUpdateChange.Type> pair : current.columns.values()) {
+                if (pair.getSecond() == RowUpdateChange.Type.PUT) {
+                    rowUpdateChange.put(pair.getFirst());
+                } else {
+                    rowUpdateChange.deleteColumns(pair.getFirst().getName());
+                }
+            }
+            rowUpdateChange.setCondition(new Condition(RowExistenceExpectation.EXPECT_EXIST));
+            rowChanges.add(rowUpdateChange);
+        }
+        // 2、发送
+        BatchResult result;
+        try {
+            result = BatchRowWriter.write(client, rowChanges);
+        } catch (Exception e) {
+            log.warn("合并更新发送失败：{}行，{}", list.size(), e.getMessage());
+            for (Pending current : list) {
+                current.future.completeExceptionally(e);
+            }
+            return;
+        }
+        // 3、按行完成
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).future.complete(result.getRows().get(i));
+        }
+    }
+
+    /**
+     * 等待发送的一行
+     */
+    private static final class Pending {
+        private final String tableName;
+        private final PrimaryKey primaryKey;
+        private final long createdNanos = System.nanoTime();
+        private final Map<String, Pair<Column, RowUpdateChange.Type>> columns = new LinkedHashMap<>();
+        private final CompletableFuture<BatchResult.RowStatus> future = new CompletableFuture<>();
+
+        private Pending(String tableName, PrimaryKey primaryKey) {
+            this.tableName = tableName;
+            this.primaryKey = primaryKey;
+        }
+    }
+
+}
@@ -0,0 +1,247 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.model.RowChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 本地预写日志（行变更先追加到内存映射的分段文件再确认写入，分段内的行全部确认后删除该分段，启动时回放未确认的分段）
+ */
+@Slf4j
+public class WriteJournal implements AutoCloseable {
+
+    /**分段文件的后缀**/
+    private static final String SUFFIX = ".journal";
+    /**每条记录的头：长度 + crc32**/
+    private static final int RECORD_HEADER = 8;
+
+    /**日志目录**/
+    private final Path directory;
+    /**每个分段的字节数**/
+    private final int segmentSize;
+    /**每次追加后是否刷盘（默认只写入页缓存，进程崩溃不丢，机器掉电可能丢）**/
+    private final boolean sync;
+    /**打开时已经存在的分段（需要回放）**/
+    private final List<Path> recoveredSegments;
+    /**正在追加的分段**/
+    private Segment active;
+    /**下一个分段的编号**/
+    private long nextSegmentId;
+
+    private WriteJournal(Path directory, int segmentSize, boolean sync, List<Path> recoveredSegments, long nextSegmentId) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+        this.recoveredSegments = recoveredSegments;
+        this.nextSegmentId = nextSegmentId;
+    }
+
+    /**
+     * 打开日志目录（不存在时创建）
+     * @param directory     日志目录（同一时间只能有一个写入器使用）
+     * @param segmentSize   每个分段的字节数
+     * @param sync          每次追加后是否刷盘
+     * @return
+     */
+    public static WriteJournal open(Path directory, int segmentSize, boolean sync) {
+        try {
+            Files.createDirectories(directory);
+            List<Path> segments = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+                for (Path path : stream) {
+                    segments.add(path);
+                }
+            }
+            Collections.sort(segments);     // 文件名是补零的编号，按名称排序即按写入顺序
+            long nextSegmentId = 0;
+            for (Path path : segments) {
+                nextSegmentId = Math.max(nextSegmentId, segmentId(path) + 1);
+            }
+            return new WriteJournal(directory, segmentSize, sync, segments, nextSegmentId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 读取打开时已经存在的分段里的行变更（上次没有确认的，按写入顺序）
+     * @return
+     */
+    public List<RowChange> recover() {
+        List<RowChange> rowChanges = new ArrayList<>();
+        for (Path path : recoveredSegments) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (buffer.remaining() >= RECORD_HEADER) {
+                    int length = buffer.getInt();
+                    int crc = buffer.getInt();
+                    if (length <= 0 || length > buffer.remaining()) {     // 分段的结尾（或者写了一半）
+                        break;
+                    }
+                    byte[] data = new byte[length];
+                    buffer.get(data);
+                    if (crc != crc(data)) {
+                        log.warn("日志{}的记录校验失败，忽略之后的记录", path);
+                        break;
+                    }
+                    rowChanges.add(RowChangeSerializer.deserialize(data));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return rowChanges;
+    }
+
+    /**
+     * 删除打开时已经存在的分段（回放的行已经重新追加或者写入之后调用）
+     */
+    public void deleteRecovered() {
+        for (Path path : recoveredSegments) {
+            delete(path);
+        }
+        recoveredSegments.clear();
+    }
+
+    /**
+     * 追加一个行变更
+     * @param rowChange     行变更
+     * @return  写入确认后需要调用 {@link #confirm(Entry)}
+     */
+    public synchronized Entry append(RowChange rowChange) {
+        byte[] data = RowChangeSerializer.serialize(rowChange);
+        int size = RECORD_HEADER + data.length;
+        if (active == null || active.buffer.remaining() < size) {
+            roll(size);
+        }
+        MappedByteBuffer buffer = active.buffer;
+        int position = buffer.position();
+        buffer.position(position + 4);
+        buffer.putInt(crc(data));
+        buffer.put(data);
+        buffer.putInt(position, data.length);     // 最后写长度，写了一半的记录读取时会被当成结尾
+        if (sync) {
+            buffer.force();
+        }
+        active.pending.incrementAndGet();
+        return new Entry(active);
+    }
+
+    /**
+     * 确认一个行变更已经写入（成功或者不可重试的失败），分段全部确认后删除
+     * @param entry     {@link #append(RowChange)} 的结果
+     */
+    public void confirm(Entry entry) {
+        Segment segment = entry.segment;
+        if (segment.pending.decrementAndGet() == 0 && segment.sealed) {
+            segment.delete();
+        }
+    }
+
+    /**
+     * 关闭（已经全部确认的分段删除，没有确认的保留到下次启动回放）
+     */
+    @Override
+    public synchronized void close() {
+        if (active != null) {
+            seal(active);
+            active = null;
+        }
+    }
+
+    /**
+     * 封存当前的分段并创建新的分段
+     * @param minSize   新分段至少需要的字节数
+     */
+    private void roll(int minSize) {
+        if (active != null) {
+            seal(active);
+        }
+        Path path = directory.resolve(String.format("%020d%s", nextSegmentId++, SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            active = new Segment(path, channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, minSize + RECORD_HEADER)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void seal(Segment segment) {
+        segment.sealed = true;
+        if (segment.pending.get() == 0) {
+            segment.delete();
+        }
+    }
+
+    private static long segmentId(Path path) {
+        String name = path.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static int crc(byte[] data) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(data, 0, data.length);
+        return (int) crc32.getValue();
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("日志分段删除失败：{}，{}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * 一个分段
+     */
+    private static final class Segment {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private volatile boolean sealed;
+
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        private void delete() {
+            if (deleted.compareAndSet(false, true)) {
+                WriteJournal.delete(path);
+            }
+        }
+    }
+
+    /**
+     * 追加的一条记录（用于确认）
+     */
+    public static final class Entry {
+        private final Segment segment;
+
+        private Entry(Segment segment) {
+            this.segment = segment;
+        }
+    }
+
+}
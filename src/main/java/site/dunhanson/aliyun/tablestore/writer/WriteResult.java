@@ -0,0 +1,28 @@
+package site.dunhanson.aliyun.tablestore.writer;
+
+import com.alicloud.openservices.tablestore.model.ConsumedCapacity;
+import com.alicloud.openservices.tablestore.model.PrimaryKey;
+import lombok.Value;
+
+/**
+ * @author chenjiaru
+ * @date 2026.10.17
+ * @description 单行写入成功的结果
+ */
+@Value
+public class WriteResult {
+    /**表名**/
+    String tableName;
+    /**主键**/
+    PrimaryKey primaryKey;
+    /**消耗的CU**/
+    ConsumedCapacity consumedCapacity;
+
+    /**
+     * 消耗的写CU
+     * @return
+     */
+    public int getWriteCapacityUnit() {
+        return consumedCapacity == null || consumedCapacity.getCapacityUnit() == null ? 0 : consumedCapacity.getCapacityUnit().getWriteCapacityUnit();
+    }
+}
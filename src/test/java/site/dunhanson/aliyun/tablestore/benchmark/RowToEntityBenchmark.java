@@ -0,0 +1,129 @@
+package site.dunhanson.aliyun.tablestore.benchmark;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alicloud.openservices.tablestore.model.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.utils.CommonUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 行转换成对象的性能对比：直接写入字段（{@link CommonUtils#rowToEntity}） vs 原来的 json 往返
+ * 运行：执行 main 方法（需要先 mvn test-compile）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RowToEntityBenchmark {
+
+    /**dochtmlcon 的大小（字符数）**/
+    @Param({"1024", "204800"})
+    private int htmlSize;
+
+    private Row row;
+
+    @Setup
+    public void setup() {
+        StringBuilder html = new StringBuilder(htmlSize);
+        while (html.length() < htmlSize) {
+            html.append("<p>招标公告内容</p>");
+        }
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("page_time", PrimaryKeyValue.fromString("2020-08-01"))
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(10086L))
+                .build();
+        List<Column> columns = new ArrayList<>();
+        columns.add(new Column("docchannel", ColumnValue.fromLong(52L)));
+        columns.add(new Column("doctitle", ColumnValue.fromString("某某医院设备采购招标公告")));
+        columns.add(new Column("dochtmlcon", ColumnValue.fromString(html.toString())));
+        columns.add(new Column("area", ColumnValue.fromString("华南")));
+        columns.add(new Column("province", ColumnValue.fromString("广东")));
+        columns.add(new Column("city", ColumnValue.fromString("深圳")));
+        columns.add(new Column("docstatus", ColumnValue.fromLong(20L)));
+        columns.add(new Column("auditstatus", ColumnValue.fromLong(1L)));
+        columns.add(new Column("web_source_no", ColumnValue.fromString("DX000001")));
+        columns.add(new Column("project_name", ColumnValue.fromString("设备采购项目")));
+        columns.add(new Column("tenderee", ColumnValue.fromString("某某医院")));
+        columns.add(new Column("status", ColumnValue.fromLong(3L)));
+        columns.add(new Column("sub_docs_json", ColumnValue.fromString(
+                "[{\"sub_project_name\":\"包1\",\"win_tenderer\":\"某某公司\",\"win_bid_price\":\"100\"}," +
+                "{\"sub_project_name\":\"包2\",\"win_tenderer\":\"某某公司\",\"win_bid_price\":\"200\"}]")));
+        row = new Row(primaryKey, columns);
+        // 预热编解码器的构建
+        CommonUtils.rowToEntity(row, Document.class);
+    }
+
+    @Benchmark
+    public Document direct() {
+        return CommonUtils.rowToEntity(row, Document.class);
+    }
+
+    @Benchmark
+    public Document jsonRoundTrip() {
+        return rowToEntityByJson(row, Document.class);
+    }
+
+    /**
+     * 原来的实现：主键和列先放入 JSONObject，序列化成字符串，再反序列化成对象
+     */
+    private static <T> T rowToEntityByJson(Row row, Class<T> clazz) {
+        JSONObject obj = new JSONObject();
+        Map<String, Field> fieldMap = CommonUtils.getFieldMap(clazz);
+        for (PrimaryKeyColumn column : row.getPrimaryKey().getPrimaryKeyColumns()) {
+            String name = column.getName();
+            Object value = null;
+            try {
+                value = column.getValue().toColumnValue().getValue();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            if (name.contains("_")) {
+                name = CommonUtils.underlineToHump(name);
+            }
+            obj.put(name, value);
+        }
+        for (Column column : row.getColumns()) {
+            String name = column.getName();
+            Object value = column.getValue().getValue();
+            if (name.contains("_")) {
+                name = CommonUtils.underlineToHump(name);
+            }
+            Field field = fieldMap.get(name);
+            if (value != null && field != null) {
+                if (value.toString().matches("^\\[.*\\]$")) {
+                    try {
+                        obj.put(name, JSON.parseArray(value.toString()));
+                    } catch (Exception e) {
+                        obj.put(name, value);
+                    }
+                } else {
+                    obj.put(name, value);
+                }
+            }
+        }
+        return JSON.parseObject(obj.toJSONString(), clazz);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RowToEntityBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build();
+        new Runner(options).run();
+    }
+
+}
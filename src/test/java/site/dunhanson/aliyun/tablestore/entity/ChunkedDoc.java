@@ -0,0 +1,17 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.ChunkedColumn;
+
+/**
+ * 分块列的测试实体（没有配置表，只用于编解码）
+ */
+@Data
+public class ChunkedDoc {
+
+    private Long docid;
+
+    @ChunkedColumn(chunkSize = 16, maxParts = 4)
+    private String dochtmlcon;
+
+}
@@ -0,0 +1,24 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.CompressedColumn;
+import site.dunhanson.aliyun.tablestore.codec.Compression;
+import site.dunhanson.aliyun.tablestore.entity.bidi.SubDocument;
+
+import java.util.List;
+
+/**
+ * 压缩列的测试实体（没有配置表，只用于编解码）
+ */
+@Data
+public class CompressedDoc {
+
+    private Long docid;
+
+    @CompressedColumn
+    private String dochtmlcon;
+
+    @CompressedColumn(Compression.GZIP)
+    private List<SubDocument> subDocsJson;
+
+}
@@ -0,0 +1,17 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Value;
+
+/**
+ * 不可变实体的测试实体（没有配置表，只用于编解码）
+ */
+@Value
+public class ImmutableDoc {
+
+    Long docid;
+
+    String doctitle;
+
+    int auditstatus;
+
+}
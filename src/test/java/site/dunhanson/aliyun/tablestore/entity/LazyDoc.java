@@ -0,0 +1,20 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.NestedColumn;
+import site.dunhanson.aliyun.tablestore.entity.bidi.SubDocument;
+
+import java.util.List;
+
+/**
+ * 延迟解析嵌套列的测试实体（没有配置表，只用于编解码）
+ */
+@Data
+public class LazyDoc {
+
+    private Long docid;
+
+    @NestedColumn(lazy = true)
+    private List<SubDocument> subDocsJson;
+
+}
@@ -0,0 +1,37 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * 类型转换器的测试实体（没有配置表，只用于编解码）
+ */
+@Data
+public class TypedDoc {
+
+    public enum Status {
+        DRAFT, PUBLISHED
+    }
+
+    private Long docid;
+
+    private Date createTime;
+
+    private LocalDateTime updateTime;
+
+    private LocalDate pageDate;
+
+    private BigDecimal price;
+
+    private Status status;
+
+    private byte[] content;
+
+    private UUID uuid;
+
+}
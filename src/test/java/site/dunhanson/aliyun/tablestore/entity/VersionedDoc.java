@@ -0,0 +1,19 @@
+package site.dunhanson.aliyun.tablestore.entity;
+
+import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.Version;
+
+/**
+ * 乐观锁的测试实体（没有配置表，只用于编解码）
+ */
+@Data
+public class VersionedDoc {
+
+    private Long docid;
+
+    private String doctitle;
+
+    @Version
+    private Integer version;
+
+}
@@ -0,0 +1,19 @@
+package site.dunhanson.aliyun.tablestore.entity.chunked;
+
+import lombok.Data;
+import site.dunhanson.aliyun.tablestore.annotation.ChunkedColumn;
+
+/**
+ * 分块列的测试实体（类名和 document 表的别名一致，可以走完整的更新路径；只用于编解码和假的客户端）
+ */
+@Data
+public class Document {
+
+    private String pageTime;
+
+    private Long docid;
+
+    @ChunkedColumn(chunkSize = 16, maxParts = 4)
+    private String dochtmlcon;
+
+}
@@ -0,0 +1,111 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.utils.AsyncTableStoreUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link AsyncTableStoreUtils} 批量获取的测试（使用假的异步客户端，不需要连接 ots）
+ */
+public class AsyncTableStoreUtilsTest {
+
+    /**
+     * 假的异步客户端：docid 为 10 的倍数的行不存在，第一次请求 docid=7 时服务繁忙、docid=13 时超时（读取都可以重试）
+     */
+    private FakeClient fakeClient() {
+        Map<Long, String> failures = new ConcurrentHashMap<>();
+        failures.put(7L, "OTSServerBusy");
+        failures.put(13L, "OTSTimeout");
+        return new FakeClient().onBatchGetRow(primaryKey -> {
+            long docid = primaryKey.getPrimaryKeyColumn("docid").getValue().asLong();
+            String code = failures.remove(docid);
+            if (code != null) {
+                return code;
+            }
+            return docid % 10 == 0 ? null : new Row(primaryKey, new Column[]{new Column("doctitle", ColumnValue.fromString("标题" + docid))});
+        });
+    }
+
+    /**
+     * 测试分批并发获取的结果按输入的下标放置，失败的行退避后单独重试
+     */
+    @Test
+    public void testBatchGetRowAligned() throws Exception {
+        List<PrimaryKey> primaryKeys = new ArrayList<>();
+        for (long docid = 250; docid > 0; docid--) {
+            primaryKeys.add(PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid)).build());
+        }
+        FakeClient client = fakeClient();
+        Row[] rows = AsyncTableStoreUtils.batchGetRow(client.async(), "document", primaryKeys, Collections.singletonList("doctitle"))
+                .get(10, TimeUnit.SECONDS);
+        List<Integer> requestSizes = client.<BatchGetRowRequest>requests("batchGetRow").stream()
+                .map(request -> request.getCriteria("document").getRowKeys().size()).collect(Collectors.toList());
+
+        assertEquals(4, requestSizes.size());     // 100 + 100 + 50，加上只重试 docid=7、13 的一次
+        assertEquals(Integer.valueOf(2), requestSizes.get(3));
+        assertEquals(250, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            long docid = 250 - i;
+            if (docid % 10 == 0) {
+                assertNull(rows[i]);
+            } else {
+                assertEquals(docid, rows[i].getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong());
+                assertEquals("标题" + docid, rows[i].getLatestColumn("doctitle").getValue().asString());
+            }
+        }
+    }
+
+    /**
+     * 测试整个请求服务繁忙、网络错误时退避后重发，不可重试的错误直接失败
+     */
+    @Test
+    public void testBatchGetRowRequestRetry() throws Exception {
+        List<PrimaryKey> primaryKeys = new ArrayList<>();
+        for (long docid = 1; docid <= 3; docid++) {
+            primaryKeys.add(PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid)).build());
+        }
+        FakeClient rows = fakeClient();
+        AtomicInteger calls = new AtomicInteger();
+        FakeClient client = new FakeClient().on("batchGetRow", (BatchGetRowRequest request) -> {
+            int call = calls.getAndIncrement();
+            if (call == 0) {
+                throw new TableStoreException("Server is busy.", null, "OTSServerBusy", "request-id", 503);
+            }
+            if (call == 1) {
+                throw new ClientException("Connection reset.");
+            }
+            return rows.sync().batchGetRow(request);
+        });
+        Row[] result = AsyncTableStoreUtils.batchGetRow(client.async(), "document", primaryKeys, Collections.singletonList("doctitle"))
+                .get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, client.requests("batchGetRow").size());
+        for (int i = 0; i < result.length; i++) {
+            assertEquals("标题" + (i + 1), result[i].getLatestColumn("doctitle").getValue().asString());
+        }
+
+        // 参数错误不重试
+        FakeClient invalid = new FakeClient().on("batchGetRow", (BatchGetRowRequest request) -> {
+            throw new TableStoreException("Invalid parameter.", null, "OTSParameterInvalid", "request-id", 400);
+        });
+        try {
+            AsyncTableStoreUtils.batchGetRow(invalid.async(), "document", primaryKeys, null).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (ExecutionException e) {
+            assertEquals("OTSParameterInvalid", ((TableStoreException) e.getCause()).getErrorCode());
+        }
+        assertEquals(1, invalid.requests("batchGetRow").size());
+    }
+
+}
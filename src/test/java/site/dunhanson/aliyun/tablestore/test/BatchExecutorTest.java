@@ -0,0 +1,65 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.utils.BatchExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BatchExecutor} 的测试（不需要连接 ots）
+ */
+public class BatchExecutorTest {
+
+    /**
+     * 测试并发执行后结果保持分批的顺序
+     */
+    @Test
+    public void testOrder() {
+        List<Integer> list = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            list.add(i);
+        }
+        List<List<Integer>> result = BatchExecutor.map(Lists.partition(list, 100), batch -> {
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new ArrayList<>(batch);
+        });
+        List<Integer> flat = new ArrayList<>();
+        result.forEach(flat::addAll);
+        assertEquals(list, flat);
+    }
+
+    /**
+     * 测试嵌套调用不会死锁
+     */
+    @Test
+    public void testNested() {
+        List<Integer> outer = Lists.newArrayList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        List<Integer> result = BatchExecutor.map(Lists.partition(outer, 1),
+                batch -> BatchExecutor.map(Lists.newArrayList(1, 2, 3, 4), i -> i * batch.get(0)).stream().mapToInt(Integer::intValue).sum());
+        assertEquals(Integer.valueOf(10), result.get(0));
+        assertEquals(Integer.valueOf(100), result.get(9));
+    }
+
+    /**
+     * 测试异常直接抛出
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testException() {
+        BatchExecutor.map(Lists.newArrayList(1, 2, 3), i -> {
+            if (i == 3) {
+                throw new IllegalStateException("failed");
+            }
+            return i;
+        });
+    }
+
+}
@@ -0,0 +1,77 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.entity.bidi.enterprise.Enterprise;
+import site.dunhanson.aliyun.tablestore.utils.TableStoreUtils;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TableStoreUtils#batchIncrement} 重试的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BatchIncrementTest {
+
+    private List<Enterprise> buildEnterprises(int count) {
+        List<Enterprise> list = new ArrayList<>();
+        for (long bidiId = 0; bidiId < count; bidiId++) {
+            Enterprise enterprise = new Enterprise();
+            enterprise.setBidiId(bidiId);
+            list.add(enterprise);
+        }
+        return list;
+    }
+
+    private long bidiId(RowChange rowChange) {
+        return rowChange.getPrimaryKey().getPrimaryKeyColumn("bidi_id").getValue().asLong();
+    }
+
+    /**
+     * 测试服务端明确没有执行的行（服务繁忙）重试，结果不确定的行（超时）不重试
+     */
+    @Test
+    public void testRetryOnlyNotApplied() {
+        Set<Long> busy = Collections.synchronizedSet(new HashSet<>(Collections.singletonList(1L)));
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> {
+            long bidiId = bidiId(rowChange);
+            if (busy.remove(bidiId)) {
+                return "OTSServerBusy";
+            }
+            return bidiId == 2 ? "OTSTimeout" : null;
+        });
+        BatchResult result = TableStoreUtils.batchIncrement(client.sync(), buildEnterprises(4), "bidNumber", 1);
+
+        assertEquals(2, client.requests("batchWriteRow").size());
+        List<RowChange> sent = client.sentRowChanges();
+        assertEquals(5, sent.size());
+        assertEquals(1, bidiId(sent.get(4)));     // 只重试 bidi_id=1
+        RowUpdateChange change = (RowUpdateChange) sent.get(0);
+        assertEquals(RowUpdateChange.Type.INCREMENT, change.getColumnsToUpdate().get(0).getSecond());
+        assertEquals(RowExistenceExpectation.EXPECT_EXIST, change.getCondition().getRowExistenceExpectation());
+        assertEquals(3, result.getSucceedCount());
+        assertEquals(2, result.getRows().get(1).getAttempts());
+        assertEquals("OTSTimeout", result.getRows().get(2).getErrorCode());
+        assertEquals(1, result.getRows().get(2).getAttempts());
+    }
+
+    /**
+     * 测试整个请求超时时只发送一次
+     */
+    @Test
+    public void testRequestTimeout() {
+        FakeClient client = new FakeClient().on("batchWriteRow", request -> {
+            throw new TableStoreException("Request timeout.", null, "OTSTimeout", "request-id", 503);
+        });
+        BatchResult result = TableStoreUtils.batchIncrement(client.sync(), buildEnterprises(3), "bidNumber", 1);
+
+        assertEquals(1, client.requests("batchWriteRow").size());
+        assertEquals(0, result.getSucceedCount());
+        assertTrue(result.getRows().stream().allMatch(row -> "OTSTimeout".equals(row.getErrorCode())));
+        assertTrue(TableStoreUtils.batchIncrement(client.sync(), null, "bidNumber", 1).getRows().isEmpty());
+    }
+
+}
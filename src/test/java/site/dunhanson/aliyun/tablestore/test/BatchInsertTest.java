@@ -0,0 +1,75 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.utils.TableStoreUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TableStoreUtils} 批量写入的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BatchInsertTest {
+
+    private List<Document> buildDocuments(int count) {
+        List<Document> list = new ArrayList<>();
+        for (long docid = 0; docid < count; docid++) {
+            Document document = new Document();
+            document.setPageTime("2020-08-01");
+            document.setDocid(docid);
+            document.setDoctitle("标题" + docid);
+            document.setCity("广州");
+            list.add(document);
+        }
+        return list;
+    }
+
+    /**
+     * 测试按 200 行分批，每行的列和 insert 一致，createOnly 时期望行不存在
+     */
+    @Test
+    public void testBatchInsert() {
+        List<Document> list = buildDocuments(450);
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        BatchResult result = TableStoreUtils.batchInsertForResult(client.sync(), list, true);
+
+        assertEquals(450, result.getSucceedCount());
+        List<BatchWriteRowRequest> requests = client.requests("batchWriteRow");
+        assertEquals(3, requests.size());
+        assertTrue(requests.stream().allMatch(request -> request.getRowsCount() <= 200));
+        List<RowChange> sent = client.sentRowChanges();
+        assertEquals(450, sent.size());
+        for (RowChange rowChange : sent) {
+            RowPutChange put = (RowPutChange) rowChange;
+            assertEquals(RowExistenceExpectation.EXPECT_NOT_EXIST, put.getCondition().getRowExistenceExpectation());
+            int docid = (int) put.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong();
+            RowPutChange expected = EntityCodecs.ofEntity(list.get(docid)).toRowPutChange(list.get(docid));
+            assertEquals(expected.getPrimaryKey(), put.getPrimaryKey());
+            assertEquals(expected.getColumnsToPut().toString(), put.getColumnsToPut().toString());
+        }
+
+        // 覆盖写入时没有条件
+        client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        TableStoreUtils.batchInsertForResult(client.sync(), list.subList(0, 1), false);
+        assertEquals(RowExistenceExpectation.IGNORE, client.sentRowChanges().get(0).getCondition().getRowExistenceExpectation());
+    }
+
+    /**
+     * 测试集合为空时返回没有行的结果，不发送请求
+     */
+    @Test
+    public void testNullList() {
+        FakeClient client = new FakeClient();
+        assertTrue(TableStoreUtils.batchInsertForResult(client.sync(), null, true).getRows().isEmpty());
+        assertTrue(TableStoreUtils.batchUpdateForResult(client.sync(), null).getRows().isEmpty());
+        assertTrue(TableStoreUtils.batchDeleteForResult(client.sync(), null).getRows().isEmpty());
+        assertTrue(client.requests("batchWriteRow").isEmpty());
+    }
+
+}
@@ -0,0 +1,59 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.utils.BatchRowReader;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BatchRowReader} 的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BatchRowReaderTest {
+
+    /**
+     * 假的客户端：docid 为 10 的倍数的行不存在，第一次请求 docid=7 时服务繁忙（可重试）
+     */
+    private FakeClient fakeClient() {
+        Set<Long> busy = Collections.synchronizedSet(new HashSet<>(Collections.singletonList(7L)));
+        return new FakeClient().onBatchGetRow(primaryKey -> {
+            long docid = primaryKey.getPrimaryKeyColumn("docid").getValue().asLong();
+            if (busy.remove(docid)) {
+                return "OTSServerBusy";
+            }
+            return docid % 10 == 0 ? null : new Row(primaryKey, new Column[]{new Column("doctitle", ColumnValue.fromString("标题" + docid))});
+        });
+    }
+
+    /**
+     * 测试分批获取的结果按输入的下标放置，不存在的行为空，失败的行单独重试
+     */
+    @Test
+    public void testReadAligned() {
+        List<PrimaryKey> primaryKeys = new ArrayList<>();
+        for (long docid = 250; docid > 0; docid--) {
+            primaryKeys.add(PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid)).build());
+        }
+        FakeClient client = fakeClient();
+        Row[] rows = BatchRowReader.read(client.sync(), "document", primaryKeys, Collections.singletonList("doctitle"));
+        List<Integer> requestSizes = client.<BatchGetRowRequest>requests("batchGetRow").stream()
+                .map(request -> request.getCriteria("document").getRowKeys().size()).collect(Collectors.toList());
+
+        assertEquals(4, requestSizes.size());     // 100 + 100 + 50，加上只重试 docid=7 的一次
+        assertTrue(requestSizes.contains(1));
+        assertEquals(250, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            long docid = 250 - i;
+            if (docid % 10 == 0) {
+                assertNull(rows[i]);
+            } else {
+                assertEquals(docid, rows[i].getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong());
+                assertEquals("标题" + docid, rows[i].getLatestColumn("doctitle").getValue().asString());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.TableStoreException;
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.utils.BatchRowWriter;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BatchRowWriter} 的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BatchRowWriterTest {
+
+    /**
+     * 假的客户端：第一次请求时 docid=2 服务繁忙（可重试），docid=3 条件检查失败（不可重试）
+     */
+    private FakeClient fakeClient() {
+        Set<Long> busy = Collections.synchronizedSet(new HashSet<>(Collections.singletonList(2L)));
+        return new FakeClient().onBatchWriteRow(rowChange -> {
+            long docid = rowChange.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong();
+            if (busy.remove(docid)) {
+                return "OTSServerBusy";
+            }
+            return docid == 3 ? "OTSConditionCheckFail" : null;
+        });
+    }
+
+    private List<RowChange> buildRowChanges(int count) {
+        List<RowChange> rowChanges = new ArrayList<>();
+        for (long docid = 0; docid < count; docid++) {
+            PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                    .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid))
+                    .build();
+            rowChanges.add(new RowUpdateChange("document", primaryKey).put("doctitle", ColumnValue.fromString("标题")));
+        }
+        return rowChanges;
+    }
+
+    /**
+     * 测试只重试可重试的失败行，每行的状态和输入顺序一致
+     */
+    @Test
+    public void testRetryFailedRows() {
+        FakeClient client = fakeClient();
+        BatchResult result = BatchRowWriter.write(client.sync(), buildRowChanges(5));
+
+        List<BatchWriteRowRequest> requests = client.requests("batchWriteRow");
+        assertEquals(2, requests.size());
+        assertEquals(1, requests.get(1).getRowsCount());     // 只重试 docid=2
+        assertEquals(5, result.getRows().size());
+        assertEquals(4, result.getSucceedCount());
+        assertEquals(4, result.getWriteCapacityUnit());
+        BatchResult.RowStatus retried = result.getRows().get(2);
+        assertTrue(retried.isSucceed());
+        assertEquals(2, retried.getAttempts());
+        BatchResult.RowStatus failed = result.getRows().get(3);
+        assertFalse(failed.isSucceed());
+        assertEquals(3, failed.getIndex());
+        assertEquals("OTSConditionCheckFail", failed.getErrorCode());
+        assertEquals(1, failed.getAttempts());
+        assertEquals(1, result.getFailedRows().size());
+    }
+
+    /**
+     * 测试超时（可能已经执行）不重试，每行记录原来的错误码
+     */
+    @Test
+    public void testTimeoutNotRetried() {
+        FakeClient client = new FakeClient().on("batchWriteRow", request -> {
+            throw new TableStoreException("Request timeout.", null, "OTSTimeout", "request-id", 503);
+        });
+        BatchResult result = BatchRowWriter.write(client.sync(), buildRowChanges(3));
+
+        assertEquals(1, client.requests("batchWriteRow").size());
+        assertEquals(3, result.getFailedRows().size());
+        for (BatchResult.RowStatus row : result.getRows()) {
+            assertEquals("OTSTimeout", row.getErrorCode());
+            assertEquals(1, row.getAttempts());
+            assertTrue(row.isUnknownOutcome());
+            assertFalse(row.isConflict());
+        }
+    }
+
+    /**
+     * 测试网络错误不重试，行级的超时也不重试
+     */
+    @Test
+    public void testClientExceptionNotRetried() {
+        FakeClient client = new FakeClient().on("batchWriteRow", request -> {
+            throw new ClientException("连接被重置");
+        });
+        BatchResult result = BatchRowWriter.write(client.sync(), buildRowChanges(2));
+        assertEquals(1, client.requests("batchWriteRow").size());
+        assertEquals("ClientException", result.getRows().get(0).getErrorCode());
+
+        client = new FakeClient().onBatchWriteRow(rowChange -> "OTSTimeout");
+        result = BatchRowWriter.write(client.sync(), buildRowChanges(2));
+        assertEquals(1, client.requests("batchWriteRow").size());
+        assertEquals("OTSTimeout", result.getRows().get(1).getErrorCode());
+    }
+
+}
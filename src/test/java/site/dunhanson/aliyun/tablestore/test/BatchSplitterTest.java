@@ -0,0 +1,72 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.utils.BatchSplitter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BatchSplitter} 的测试（不需要连接 ots）
+ */
+public class BatchSplitterTest {
+
+    private RowPutChange buildRowChange(long docid, int contentLength) {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid))
+                .build();
+        StringBuilder content = new StringBuilder(contentLength);
+        for (int i = 0; i < contentLength; i++) {
+            content.append('a');
+        }
+        return new RowPutChange("document", primaryKey).addColumn("dochtmlcon", ColumnValue.fromString(content.toString()));
+    }
+
+    /**
+     * 测试小行按行数上限切分
+     */
+    @Test
+    public void testSplitByRows() {
+        List<RowChange> rowChanges = new ArrayList<>();
+        for (int i = 0; i < 450; i++) {
+            rowChanges.add(buildRowChange(i, 10));
+        }
+        List<List<RowChange>> batches = BatchSplitter.split(rowChanges, 200, 4 * 1024 * 1024);
+        assertEquals(3, batches.size());
+        assertEquals(200, batches.get(0).size());
+        assertEquals(50, batches.get(2).size());
+        assertSame(rowChanges.get(200), batches.get(1).get(0));
+    }
+
+    /**
+     * 测试大行按字节数上限切分，超过上限的单行单独一批
+     */
+    @Test
+    public void testSplitByBytes() {
+        List<RowChange> rowChanges = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            rowChanges.add(buildRowChange(i, 1000));
+        }
+        rowChanges.add(buildRowChange(10, 5000));
+        rowChanges.add(buildRowChange(11, 10));
+        long maxBytes = rowChanges.get(0).getDataSize() * 3L;
+        List<List<RowChange>> batches = BatchSplitter.split(rowChanges, 200, maxBytes);
+        int total = 0;
+        for (List<RowChange> batch : batches) {
+            long bytes = 0;
+            for (RowChange rowChange : batch) {
+                bytes += rowChange.getDataSize();
+            }
+            assertTrue(batch.size() == 1 || bytes <= maxBytes);
+            total += batch.size();
+        }
+        assertEquals(rowChanges.size(), total);
+        assertEquals(3, batches.get(0).size());
+        assertEquals(1, batches.get(4).size());
+        assertTrue(BatchSplitter.split(new ArrayList<RowChange>(), 200, maxBytes).isEmpty());
+    }
+
+}
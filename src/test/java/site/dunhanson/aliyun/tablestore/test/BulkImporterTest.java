@@ -0,0 +1,127 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.importer.BulkImporter;
+import site.dunhanson.aliyun.tablestore.importer.ImportConfig;
+import site.dunhanson.aliyun.tablestore.importer.ImportResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BulkImporter} 的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BulkImporterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * 假的客户端：docid=3 条件检查失败
+     */
+    private FakeClient fakeClient() {
+        return new FakeClient().onBatchWriteRow(rowChange ->
+                docid(rowChange) == 3 ? "OTSConditionCheckFail" : null);
+    }
+
+    /**
+     * 写入成功的行（docid -> 行）
+     */
+    private Map<Long, RowPutChange> written(FakeClient client) {
+        Map<Long, RowPutChange> written = new HashMap<>();
+        for (RowChange rowChange : client.sentRowChanges()) {
+            if (docid(rowChange) != 3) {
+                written.put(docid(rowChange), (RowPutChange) rowChange);
+            }
+        }
+        return written;
+    }
+
+    private long docid(RowChange rowChange) {
+        return rowChange.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong();
+    }
+
+    /**
+     * 测试 JSONL 导入：列名和字段名都可以作为 key，解析失败和写入失败的行记录到 .errors
+     */
+    @Test
+    public void testImportJsonl() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("document.jsonl");
+        List<String> lines = new ArrayList<>();
+        for (int docid = 0; docid < 10; docid++) {
+            lines.add("{\"page_time\":\"2020-08-01\",\"docid\":" + docid + ",\"doctitle\":\"标题" + docid + "\"}");
+        }
+        lines.add("{\"pageTime\":\"2020-08-02\",\"docid\":10,\"doctitle\":\"字段名\"}");
+        lines.add("{不是json");
+        lines.add("");
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        FakeClient client = fakeClient();
+        ImportConfig config = ImportConfig.builder().chunkRows(3).parallelism(2).build();
+        ImportResult result = new BulkImporter<>(client.sync(), Document.class, config).importFile(file);
+        Map<Long, RowPutChange> written = written(client);
+
+        assertEquals(13, result.getLines());
+        assertEquals(10, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(1, result.getParseErrors());
+        assertEquals(10, result.getWriteCapacityUnit());
+        assertEquals(Files.size(file), result.getOffset());
+        assertEquals(10, written.size());
+        assertEquals("标题5", written.get(5L).getColumnsToPut("doctitle").get(0).getValue().asString());
+        assertEquals("2020-08-02", written.get(10L).getPrimaryKey().getPrimaryKeyColumn("page_time").getValue().asString());
+
+        List<String> errors = Files.readAllLines(file.resolveSibling("document.jsonl.errors"), StandardCharsets.UTF_8);
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().anyMatch(line -> line.startsWith("OTSConditionCheckFail\t")));
+        assertTrue(errors.stream().anyMatch(line -> line.startsWith("ParseError\t") && line.endsWith("{不是json")));
+    }
+
+    /**
+     * 测试 CSV 导入从进度文件的位置继续（表头始终从文件开头读取）
+     */
+    @Test
+    public void testResumeCsv() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("document.csv");
+        List<String> lines = new ArrayList<>();
+        lines.add("page_time,docid,doctitle");
+        for (int docid = 0; docid < 6; docid++) {
+            lines.add("2020-08-01," + docid + ",\"标题," + docid + "\"");
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        // 1、第一次只导入前两行（模拟中断后留下的进度文件）
+        Path firstPart = folder.getRoot().toPath().resolve("first.csv");
+        Files.write(firstPart, lines.subList(0, 3), StandardCharsets.UTF_8);
+        ImportConfig config = ImportConfig.builder().chunkRows(2).build();
+        ImportResult first = new BulkImporter<>(fakeClient().sync(), Document.class, config).importFile(firstPart);
+        assertEquals(2, first.getSucceeded());
+        Files.move(firstPart.resolveSibling("first.csv.checkpoint"), file.resolveSibling("document.csv.checkpoint"));
+
+        // 2、继续导入剩下的行，统计包含上次的结果
+        FakeClient client = fakeClient();
+        ImportResult result = new BulkImporter<>(client.sync(), Document.class, config).importFile(file);
+        Map<Long, RowPutChange> written = written(client);
+        assertEquals(6, result.getLines());
+        assertEquals(5, result.getSucceeded());
+        assertEquals(1, result.getFailed());
+        assertEquals(new HashSet<>(Arrays.asList(2L, 4L, 5L)), written.keySet());
+        assertEquals("标题,4", written.get(4L).getColumnsToPut("doctitle").get(0).getValue().asString());
+
+        // 3、已经导入完成的文件再次导入不会重复写入
+        client = fakeClient();
+        result = new BulkImporter<>(client.sync(), Document.class, config).importFile(file);
+        assertEquals(6, result.getLines());
+        assertTrue(client.sentRowChanges().isEmpty());
+    }
+
+}
@@ -0,0 +1,180 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriteException;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriter;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriterConfig;
+import site.dunhanson.aliyun.tablestore.writer.WriteResult;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link BulkWriter} 的测试（使用假的客户端，不需要连接 ots）
+ */
+public class BulkWriterTest {
+
+    /**
+     * 假的客户端：docid 为负数的行返回行错误
+     */
+    private FakeClient fakeClient() {
+        return new FakeClient().onBatchWriteRow(rowChange ->
+                rowChange.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong() < 0 ? "OTSConditionCheckFail" : null);
+    }
+
+    /**
+     * 每次请求的行数
+     */
+    private List<Integer> batchSizes(FakeClient client) {
+        return client.<BatchWriteRowRequest>requests("batchWriteRow").stream().map(BatchWriteRowRequest::getRowsCount).collect(Collectors.toList());
+    }
+
+    private Document buildDocument(long docid) {
+        Document document = new Document();
+        document.setPageTime("2020-08-01");
+        document.setDocid(docid);
+        document.setDoctitle("标题" + docid);
+        return document;
+    }
+
+    /**
+     * 测试按行数分批，并且每行返回各自的结果
+     */
+    @Test
+    public void testBatchByRows() {
+        FakeClient client = fakeClient();
+        BulkWriterConfig config = BulkWriterConfig.builder().maxRows(10).lingerMillis(1000).parallelism(2).build();
+        List<CompletableFuture<WriteResult>> futures = new ArrayList<>();
+        try (BulkWriter writer = new BulkWriter(client.sync(), config)) {
+            for (int i = 0; i < 25; i++) {
+                futures.add(writer.insert(buildDocument(i)));
+            }
+            writer.flush();
+            for (int i = 0; i < futures.size(); i++) {
+                WriteResult result = futures.get(i).join();
+                assertEquals(i, result.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong());
+                assertEquals(1, result.getWriteCapacityUnit());
+            }
+        }
+        assertEquals(25, batchSizes(client).stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes(client).stream().allMatch(size -> size <= 10));
+    }
+
+    /**
+     * 测试行错误只影响该行，主键重复时拆成两批
+     */
+    @Test
+    public void testRowError() {
+        FakeClient client = fakeClient();
+        BulkWriterConfig config = BulkWriterConfig.builder().lingerMillis(1000).build();
+        CompletableFuture<WriteResult> ok;
+        CompletableFuture<WriteResult> failed;
+        CompletableFuture<WriteResult> duplicate;
+        try (BulkWriter writer = new BulkWriter(client.sync(), config)) {
+            ok = writer.update(buildDocument(1));
+            failed = writer.update(buildDocument(-1));
+            duplicate = writer.update(buildDocument(1));
+        }
+        assertEquals(1, ok.join().getWriteCapacityUnit());
+        assertEquals(1, duplicate.join().getWriteCapacityUnit());
+        try {
+            failed.join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals("OTSConditionCheckFail", ((BulkWriteException) e.getCause()).getErrorCode());
+        }
+        assertEquals(2, batchSizes(client).size());
+    }
+
+    /**
+     * 测试服务端明确没有执行的行重试后才完成，结果不确定的行（超时）不重试
+     */
+    @Test
+    public void testRetryRowError() {
+        Set<Long> busy = Collections.synchronizedSet(new HashSet<>(Collections.singletonList(1L)));
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> {
+            long docid = rowChange.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong();
+            if (busy.remove(docid)) {
+                return "OTSServerBusy";
+            }
+            return docid == 2 ? "OTSTimeout" : null;
+        });
+        CompletableFuture<WriteResult> retried;
+        CompletableFuture<WriteResult> timeout;
+        try (BulkWriter writer = new BulkWriter(client.sync(), BulkWriterConfig.builder().lingerMillis(1000).build())) {
+            retried = writer.increment(buildDocument(1), "docstatus", 1);
+            timeout = writer.increment(buildDocument(2), "docstatus", 1);
+        }
+        assertEquals(1, retried.join().getWriteCapacityUnit());
+        try {
+            timeout.join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals("OTSTimeout", ((BulkWriteException) e.getCause()).getErrorCode());
+        }
+        assertEquals(Arrays.asList(2, 1), batchSizes(client));     // 只重试 docid=1
+    }
+
+    /**
+     * 测试按字节数分批
+     */
+    @Test
+    public void testBatchByBytes() {
+        FakeClient client = fakeClient();
+        long rowBytes = new RowPutChange("document", PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("page_time", PrimaryKeyValue.fromString("2020-08-01"))
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(0L))
+                .build()).addColumn("doctitle", ColumnValue.fromString("标题0")).getDataSize();
+        BulkWriterConfig config = BulkWriterConfig.builder().maxBytes(rowBytes * 3).lingerMillis(1000).build();
+        try (BulkWriter writer = new BulkWriter(client.sync(), config)) {
+            for (int i = 0; i < 9; i++) {
+                writer.insert(buildDocument(i));
+            }
+        }
+        assertEquals(9, batchSizes(client).stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes(client).stream().allMatch(size -> size <= 3));
+    }
+
+    /**
+     * 测试关闭时并发提交的行要么被拒绝，要么写入并完成（不会丢失或者一直不完成）
+     */
+    @Test
+    public void testCloseWhileSubmitting() throws Exception {
+        FakeClient client = fakeClient();
+        BulkWriter writer = new BulkWriter(client.sync(), BulkWriterConfig.builder().maxRows(7).lingerMillis(1000).build());
+        List<CompletableFuture<WriteResult>> futures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            long base = t * 10000L;
+            Thread thread = new Thread(() -> {
+                for (long docid = base; docid < base + 10000; docid++) {
+                    try {
+                        futures.add(writer.insert(buildDocument(docid)));
+                    } catch (IllegalStateException e) {
+                        return;     // 已经关闭
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        Thread.sleep(20);
+        writer.close();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        for (CompletableFuture<WriteResult> future : futures) {
+            assertTrue(future.isDone());
+            assertFalse(future.isCompletedExceptionally());
+        }
+        assertEquals(futures.size(), client.sentRowChanges().size());
+    }
+
+}
@@ -0,0 +1,69 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.Chunking;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.ChunkedDoc;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link Chunking} 和分块列编解码的测试（不需要连接 ots）
+ */
+public class ChunkingTest {
+
+    private final PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+            .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L))
+            .build();
+
+    /**
+     * 测试拆分成 清单列 + 块列，读取时拼接成一个字段
+     */
+    @Test
+    public void testSplitAndJoin() {
+        String text = "招标公告：第一标段，第二标段，第三标段";     // 57字节，16字节一块共4块
+        List<Column> columns = Chunking.split("dochtmlcon", ColumnValue.fromString(text), 16, 4);
+        assertEquals(5, columns.size());
+        assertEquals("dochtmlcon", columns.get(0).getName());
+        assertEquals("dochtmlcon__part4", columns.get(4).getName());
+
+        EntityCodec<ChunkedDoc> codec = EntityCodecs.of(ChunkedDoc.class);
+        ChunkedDoc doc = codec.decode(new Row(primaryKey, columns.toArray(new Column[0])));
+        assertEquals(text, doc.getDochtmlcon());
+        assertNull(Chunking.split("dochtmlcon", ColumnValue.fromString("短"), 16, 4));
+    }
+
+    /**
+     * 测试超过上限报错，缺块时不读取，旧的字符串照常读取
+     */
+    @Test
+    public void testLimitAndLegacy() {
+        try {
+            Chunking.split("dochtmlcon", ColumnValue.fromBinary(new byte[65]), 16, 4);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("dochtmlcon"));
+        }
+        EntityCodec<ChunkedDoc> codec = EntityCodecs.of(ChunkedDoc.class);
+        List<Column> columns = Chunking.split("dochtmlcon", ColumnValue.fromBinary(new byte[40]), 16, 4);
+        ChunkedDoc doc = codec.decode(new Row(primaryKey, columns.subList(0, 2).toArray(new Column[0])));
+        assertNull(doc.getDochtmlcon());
+        doc = codec.decode(new Row(primaryKey, new Column[]{new Column("dochtmlcon", ColumnValue.fromString("旧数据"))}));
+        assertEquals("旧数据", doc.getDochtmlcon());
+    }
+
+    /**
+     * 测试投影同时获取块列
+     */
+    @Test
+    public void testProjection() {
+        List<String> columns = EntityCodecs.of(ChunkedDoc.class).include(Arrays.asList("dochtmlcon")).getColumns();
+        assertEquals(Arrays.asList("dochtmlcon", "dochtmlcon__part1", "dochtmlcon__part2", "dochtmlcon__part3", "dochtmlcon__part4"), columns);
+    }
+
+}
@@ -0,0 +1,88 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.Compression;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.entity.CompressedDoc;
+import site.dunhanson.aliyun.tablestore.entity.bidi.SubDocument;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link Compression} 和压缩列编解码的测试（不需要连接 ots）
+ */
+public class CompressionTest {
+
+    private String repeat(String text, int times) {
+        StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            stringBuilder.append(text);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * 测试压缩和解压（没有压缩头的返回null）
+     */
+    @Test
+    public void testRoundTrip() {
+        byte[] data = repeat("<p>招标公告</p>", 200).getBytes(StandardCharsets.UTF_8);
+        for (Compression compression : Compression.values()) {
+            byte[] compressed = compression.compress(data);
+            assertTrue(compressed.length < data.length);
+            assertArrayEquals(data, Compression.decompress(compressed));
+        }
+        assertNull(Compression.decompress(data));
+        assertEquals(Compression.GZIP, Compression.of("gzip"));
+    }
+
+    /**
+     * 测试压缩列写入二进制、读取时解压，短的值和旧的字符串数据照常读取
+     */
+    @Test
+    public void testCodec() {
+        EntityCodec<CompressedDoc> codec = EntityCodecs.of(CompressedDoc.class);
+        CompressedDoc doc = new CompressedDoc();
+        doc.setDocid(1L);
+        doc.setDochtmlcon(repeat("<p>招标公告</p>", 200));
+        List<SubDocument> subDocuments = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            SubDocument subDocument = new SubDocument();
+            subDocument.setSubProjectName("子项目" + i);
+            subDocuments.add(subDocument);
+        }
+        doc.setSubDocsJson(subDocuments);
+
+        // 1、写入：长的值压缩成二进制
+        ColumnValue[] values = codec.snapshot(doc);
+        List<Column> columns = new ArrayList<>();
+        String[] names = {"docid", "dochtmlcon", "sub_docs_json"};
+        for (int i = 0; i < values.length; i++) {
+            columns.add(new Column(names[i], values[i]));
+        }
+        assertEquals(ColumnType.BINARY, values[1].getType());
+        assertEquals(ColumnType.BINARY, values[2].getType());
+
+        // 2、读取：自动解压
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("id", PrimaryKeyValue.fromLong(1L))
+                .build();
+        CompressedDoc result = codec.decode(new Row(primaryKey, columns.toArray(new Column[0])));
+        assertEquals(doc.getDochtmlcon(), result.getDochtmlcon());
+        assertEquals(50, result.getSubDocsJson().size());
+        assertEquals("子项目49", result.getSubDocsJson().get(49).getSubProjectName());
+
+        // 3、短的值不压缩，旧的字符串数据照常读取
+        doc.setDochtmlcon("短");
+        assertEquals(ColumnType.STRING, codec.snapshot(doc)[1].getType());
+        result = codec.decode(new Row(primaryKey, new Column[]{new Column("dochtmlcon", ColumnValue.fromString("旧数据"))}));
+        assertEquals("旧数据", result.getDochtmlcon());
+    }
+
+}
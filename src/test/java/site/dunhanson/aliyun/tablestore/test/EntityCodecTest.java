@@ -0,0 +1,311 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.condition.SingleColumnValueCondition;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.ColumnSymbolTable;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.LazyJsonList;
+import site.dunhanson.aliyun.tablestore.entity.ImmutableDoc;
+import site.dunhanson.aliyun.tablestore.entity.LazyDoc;
+import site.dunhanson.aliyun.tablestore.entity.VersionedDoc;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.entity.bidi.SubDocument;
+import site.dunhanson.aliyun.tablestore.entity.bidi.enterprise.Enterprise;
+import site.dunhanson.aliyun.tablestore.entity.bidi.enterprise.EnterpriseProfilePatentItem;
+import site.dunhanson.aliyun.tablestore.utils.CommonUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link EntityCodec} 的测试（不需要连接 ots）
+ */
+public class EntityCodecTest {
+
+    private Document buildDocument() {
+        Document document = new Document();
+        document.setPageTime("2020-08-01");
+        document.setDocid(10086L);
+        document.setDocchannel(52L);
+        document.setDoctitle("标题");
+        document.setAuditstatus(1);
+        SubDocument subDocument = new SubDocument();
+        subDocument.setSubProjectName("子项目");
+        subDocument.setWinBidPrice("100");
+        document.setSubDocsJson(new ArrayList<>(Arrays.asList(subDocument)));
+        return document;
+    }
+
+    /**
+     * 测试构造主键（按配置的主键顺序）
+     */
+    @Test
+    public void testPrimaryKey() {
+        PrimaryKey primaryKey = EntityCodecs.of(Document.class).toPrimaryKey(buildDocument());
+        assertEquals(2, primaryKey.size());
+        assertEquals("page_time", primaryKey.getPrimaryKeyColumn(0).getName());
+        assertEquals("2020-08-01", primaryKey.getPrimaryKeyColumn(0).getValue().asString());
+        assertEquals(10086L, primaryKey.getPrimaryKeyColumn(1).getValue().asLong());
+    }
+
+    /**
+     * 测试构造写入对象（空字段不写入，嵌套数组转成下划线的json）
+     */
+    @Test
+    public void testRowPutChange() {
+        RowPutChange change = EntityCodecs.of(Document.class).toRowPutChange(buildDocument());
+        assertEquals("document", change.getTableName());
+        assertFalse(change.has("dochtmlcon"));
+        assertFalse(change.has("page_time"));
+        assertEquals(52L, change.getColumnsToPut("docchannel").get(0).getValue().asLong());
+        assertEquals(1L, change.getColumnsToPut("auditstatus").get(0).getValue().asLong());
+        String subDocs = change.getColumnsToPut("sub_docs_json").get(0).getValue().asString();
+        assertTrue(subDocs.contains("\"sub_project_name\":\"子项目\""));
+    }
+
+    /**
+     * 测试行转换成对象
+     */
+    @Test
+    public void testDecode() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        Document document = buildDocument();
+        RowPutChange change = codec.toRowPutChange(document);
+        Row row = new Row(change.getPrimaryKey(), change.getColumnsToPut());
+
+        Document result = codec.decode(row);
+        assertEquals(document.getPageTime(), result.getPageTime());
+        assertEquals(document.getDocid(), result.getDocid());
+        assertEquals(document.getDocchannel(), result.getDocchannel());
+        assertEquals(document.getAuditstatus(), result.getAuditstatus());
+        assertNull(result.getDochtmlcon());
+        List<SubDocument> subDocs = result.getSubDocsJson();
+        assertEquals(1, subDocs.size());
+        assertEquals("子项目", subDocs.get(0).getSubProjectName());
+        assertEquals("100", subDocs.get(0).getWinBidPrice());
+    }
+
+    /**
+     * 测试 Enterprise 的编解码（单主键、驼峰列名）
+     */
+    @Test
+    public void testEnterprise() {
+        Enterprise enterprise = new Enterprise();
+        enterprise.setBidiId(1314520L);
+        enterprise.setName("testEnterprise");
+        enterprise.setZhaoBiaoNumber(3);
+        EntityCodec<Enterprise> codec = EntityCodecs.of(Enterprise.class);
+        RowUpdateChange change = codec.toRowUpdateChange(enterprise);
+        Row row = new Row(change.getPrimaryKey(), new Column[]{
+                new Column("name", ColumnValue.fromString("testEnterprise")),
+                new Column("zhao_biao_number", ColumnValue.fromLong(3))
+        });
+        Enterprise result = codec.decode(row);
+        assertEquals(Long.valueOf(1314520L), result.getBidiId());
+        assertEquals("testEnterprise", result.getName());
+        assertEquals(Integer.valueOf(3), result.getZhaoBiaoNumber());
+    }
+
+    /**
+     * 测试 ots 列类型与字段类型不一致时的转换
+     */
+    @Test
+    public void testCoercion() {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("page_time", PrimaryKeyValue.fromString("2020-08-01"))
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L))
+                .build();
+        Row row = new Row(primaryKey, new Column[]{
+                new Column("docchannel", ColumnValue.fromString("52")),     // String -> Long
+                new Column("auditstatus", ColumnValue.fromLong(2L)),         // Long -> Integer
+                new Column("doctitle", ColumnValue.fromLong(100L)),          // Long -> String
+                new Column("status", ColumnValue.fromDouble(3.0)),           // Double -> Long
+                new Column("unknown_column", ColumnValue.fromString("x"))    // 没有对应的字段
+        });
+        Document result = EntityCodecs.of(Document.class).decode(row);
+        assertEquals(Long.valueOf(52L), result.getDocchannel());
+        assertEquals(Integer.valueOf(2), result.getAuditstatus());
+        assertEquals("100", result.getDoctitle());
+        assertEquals(Long.valueOf(3L), result.getStatus());
+    }
+
+    /**
+     * 测试嵌套列按声明的元素类型解析，普通字符串列保持原值
+     */
+    @Test
+    public void testNestedColumn() {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("bidi_id", PrimaryKeyValue.fromLong(1L))
+                .build();
+        Row row = new Row(primaryKey, new Column[]{
+                new Column("name", ColumnValue.fromString("[测试]公司")),
+                new Column("tags", ColumnValue.fromString("[\"a\",\"b\"]")),
+                new Column("patents", ColumnValue.fromString("[{\"patent_name\":\"专利\",\"conn_list\":[\"x\"]}]"))
+        });
+        Enterprise result = EntityCodecs.of(Enterprise.class).decode(row);
+        assertEquals("[测试]公司", result.getName());
+        assertEquals("[\"a\",\"b\"]", result.getTags());
+        assertEquals(1, result.getPatents().size());
+        EnterpriseProfilePatentItem patent = result.getPatents().get(0);
+        assertEquals("专利", patent.getPatentName());
+        assertEquals(Arrays.asList("x"), patent.getConnList());
+    }
+
+    /**
+     * 测试延迟解析的嵌套列（第一次访问才解析，未访问时原样写回）
+     */
+    @Test
+    public void testLazyNestedColumn() {
+        String json = "[{\"sub_project_name\":\"包1\"},{\"sub_project_name\":\"包2\"}]";
+        Row row = new Row(PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L)).build(), new Column[]{
+                new Column("sub_docs_json", ColumnValue.fromString(json))
+        });
+        EntityCodec<LazyDoc> codec = EntityCodecs.of(LazyDoc.class);
+        LazyDoc doc = codec.decode(row);
+        assertTrue(doc.getSubDocsJson() instanceof LazyJsonList);
+        LazyJsonList<SubDocument> subDocs = (LazyJsonList<SubDocument>) doc.getSubDocsJson();
+        assertFalse(subDocs.isDecoded());
+        assertEquals(Long.valueOf(1L), doc.getDocid());
+
+        // 第一次访问才解析
+        assertEquals(2, subDocs.size());
+        assertTrue(subDocs.isDecoded());
+        assertEquals("包2", subDocs.get(1).getSubProjectName());
+        subDocs.remove(0);
+        assertEquals(1, subDocs.size());
+    }
+
+    @Test
+    public void testSymbolTable() {
+        ColumnSymbolTable symbolTable = EntityCodecs.of(Document.class).getSymbolTable();
+        int ordinal = symbolTable.ordinalOfColumn("page_time");
+        assertTrue(ordinal >= 0);
+        assertEquals(ordinal, symbolTable.ordinalOfField("pageTime"));
+        assertEquals("pageTime", symbolTable.fieldName(ordinal));
+        assertEquals("page_time", symbolTable.columnName(ordinal));
+        assertEquals("sub_docs_json", symbolTable.columnNameOfField("subDocsJson"));
+        assertEquals("subDocsJson", symbolTable.fieldNameOfColumn("sub_docs_json"));
+        assertEquals(-1, symbolTable.ordinalOfColumn("not_exists"));
+        assertNull(symbolTable.fieldNameOfColumn("not_exists"));
+    }
+
+    @Test
+    public void testNameConversion() {
+        assertEquals("subDocsJson", CommonUtils.underlineToHump("sub_docs_json"));
+        assertEquals("docid", CommonUtils.underlineToHump("docid"));
+        assertEquals("sub_docs_json", CommonUtils.humpToUnderline("subDocsJson"));
+        assertEquals("docid", CommonUtils.humpToUnderline("docid"));
+    }
+
+    /**
+     * 测试不可变实体通过全参构造解码（缺失的基本类型字段为默认值）
+     */
+    @Test
+    public void testImmutable() {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L))
+                .build();
+        EntityCodec<ImmutableDoc> codec = EntityCodecs.of(ImmutableDoc.class);
+        ImmutableDoc result = codec.decode(new Row(primaryKey, new Column[]{
+                new Column("doctitle", ColumnValue.fromString("标题"))
+        }));
+        assertEquals(new ImmutableDoc(1L, "标题", 0), result);
+        assertEquals("标题", codec.getValue(result, "doctitle"));
+        result = codec.decode(new Row(primaryKey, new Column[]{
+                new Column("auditstatus", ColumnValue.fromLong(2L))
+        }));
+        assertEquals(new ImmutableDoc(1L, null, 2), result);
+    }
+
+    /**
+     * 测试只包含变化列的更新对象（值变化的写入，变为空的删除，没变化的不写）
+     */
+    @Test
+    public void testDiffUpdate() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        Document document = buildDocument();
+        ColumnValue[] snapshot = codec.snapshot(document);
+        assertTrue(codec.toRowUpdateChange(snapshot, document).getColumnsToUpdate().isEmpty());
+
+        document.setAuditstatus(2);
+        document.setDoctitle(null);
+        RowUpdateChange change = codec.toRowUpdateChange(snapshot, document);
+        assertEquals(2, change.getColumnsToUpdate().size());
+        for (int i = 0; i < change.getColumnsToUpdate().size(); i++) {
+            Column column = change.getColumnsToUpdate().get(i).getFirst();
+            RowUpdateChange.Type type = change.getColumnsToUpdate().get(i).getSecond();
+            if ("auditstatus".equals(column.getName())) {
+                assertEquals(RowUpdateChange.Type.PUT, type);
+                assertEquals(2L, column.getValue().asLong());
+            } else {
+                assertEquals("doctitle", column.getName());
+                assertEquals(RowUpdateChange.Type.DELETE_ALL, type);
+            }
+        }
+        assertEquals(2, codec.toRowUpdateChange(buildDocument(), document).getColumnsToUpdate().size());
+    }
+
+    /**
+     * 测试原子自增的更新对象（字段名和列名都可以，非整型字段报错）
+     */
+    @Test
+    public void testIncrementChange() {
+        EntityCodec<Enterprise> codec = EntityCodecs.of(Enterprise.class);
+        Enterprise enterprise = new Enterprise();
+        enterprise.setBidiId(1L);
+        Map<String, Long> deltas = new LinkedHashMap<>();
+        deltas.put("bidNumber", 1L);
+        deltas.put("zhong_biao_number", -2L);
+        RowUpdateChange change = codec.toIncrementChange(enterprise, deltas);
+        assertEquals(2, change.getColumnsToUpdate().size());
+        assertEquals(RowUpdateChange.Type.INCREMENT, change.getColumnsToUpdate().get(0).getSecond());
+        assertEquals("bid_number", change.getColumnsToUpdate().get(0).getFirst().getName());
+        assertEquals(-2L, change.getColumnsToUpdate().get(1).getFirst().getValue().asLong());
+        try {
+            codec.counterColumnName("regNumber");
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("regNumber"));
+        }
+    }
+
+    /**
+     * 测试乐观锁条件检查读取时的版本并写入 版本+1
+     */
+    @Test
+    public void testVersion() {
+        EntityCodec<VersionedDoc> codec = EntityCodecs.of(VersionedDoc.class);
+        assertTrue(codec.isVersioned());
+        VersionedDoc doc = new VersionedDoc();
+        doc.setDoctitle("标题");
+        doc.setVersion(3);
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder().addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1)).build();
+        RowUpdateChange change = new RowUpdateChange("versioned_doc", primaryKey).put("doctitle", ColumnValue.fromString("标题"));
+
+        codec.applyVersion(change, doc);
+        assertEquals(RowExistenceExpectation.EXPECT_EXIST, change.getCondition().getRowExistenceExpectation());
+        SingleColumnValueCondition condition = (SingleColumnValueCondition) change.getCondition().getColumnCondition();
+        assertEquals("version", condition.getColumnName());
+        assertEquals(3L, condition.getColumnValue().asLong());
+        assertFalse(condition.isPassIfMissing());
+        assertEquals("version", change.getColumnsToUpdate().get(1).getFirst().getName());
+        assertEquals(4L, change.getColumnsToUpdate().get(1).getFirst().getValue().asLong());
+        codec.advanceVersion(doc);
+        assertEquals(Integer.valueOf(4), doc.getVersion());
+
+        // 没有版本时视为0，旧数据没有版本列也能通过
+        doc.setVersion(null);
+        change = codec.applyVersion(new RowUpdateChange("versioned_doc", primaryKey), doc);
+        assertTrue(((SingleColumnValueCondition) change.getCondition().getColumnCondition()).isPassIfMissing());
+        assertFalse(EntityCodecs.of(Document.class).isVersioned());
+    }
+
+}
@@ -0,0 +1,155 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.AsyncClientInterface;
+import com.alicloud.openservices.tablestore.SyncClientInterface;
+import com.alicloud.openservices.tablestore.TableStoreCallback;
+import com.alicloud.openservices.tablestore.model.*;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 假的客户端（按方法名分发到注册的处理函数，记录收到的请求，不需要连接 ots）
+ */
+public class FakeClient {
+
+    /**方法名 -> 处理函数（参数是请求，返回响应，抛出的异常原样交给调用方）**/
+    private final Map<String, Function<Object, Object>> handlers = new ConcurrentHashMap<>();
+    /**方法名 -> 收到的请求**/
+    private final Map<String, List<Object>> requests = new ConcurrentHashMap<>();
+
+    /**
+     * 注册处理函数
+     * @param methodName    方法名（如 batchWriteRow）
+     * @param handler       处理函数
+     * @return
+     */
+    @SuppressWarnings("unchecked")     // 请求和响应的类型由方法名决定
+    public <Q, R> FakeClient on(String methodName, Function<Q, R> handler) {
+        handlers.put(methodName, request -> handler.apply((Q) request));
+        return this;
+    }
+
+    /**
+     * 注册 batchWriteRow：逐行决定结果
+     * @param errorCode     行变更 -> 错误码（为空时成功，消耗1个写CU）
+     * @return
+     */
+    public FakeClient onBatchWriteRow(Function<RowChange, String> errorCode) {
+        return on("batchWriteRow", (BatchWriteRowRequest request) -> {
+            BatchWriteRowResponse response = new BatchWriteRowResponse(new Response());
+            for (String tableName : request.getRowChange().keySet()) {
+                List<RowChange> rowChanges = request.getRowChange().get(tableName);
+                for (int i = 0; i < rowChanges.size(); i++) {
+                    String code = errorCode.apply(rowChanges.get(i));
+                    if (code == null) {
+                        response.addRowResult(new BatchWriteRowResponse.RowResult(tableName, null, new ConsumedCapacity(new CapacityUnit(0, 1)), i));
+                    } else {
+                        response.addRowResult(new BatchWriteRowResponse.RowResult(tableName, null, new com.alicloud.openservices.tablestore.model.Error(code, code), i));
+                    }
+                }
+            }
+            return response;
+        });
+    }
+
+    /**
+     * 注册 batchGetRow：逐行决定结果
+     * @param result        主键 -> 结果（{@link Row} 为存在的行，为空时行不存在，字符串为失败的错误码）
+     * @return
+     */
+    public FakeClient onBatchGetRow(Function<PrimaryKey, Object> result) {
+        return on("batchGetRow", (BatchGetRowRequest request) -> {
+            BatchGetRowResponse response = new BatchGetRowResponse(new Response());
+            for (String tableName : request.getCriteriasByTable().keySet()) {
+                List<PrimaryKey> primaryKeys = request.getCriteria(tableName).getRowKeys();
+                for (int i = 0; i < primaryKeys.size(); i++) {
+                    Object value = result.apply(primaryKeys.get(i));
+                    if (value instanceof String) {
+                        response.addResult(new BatchGetRowResponse.RowResult(tableName, new com.alicloud.openservices.tablestore.model.Error((String) value, (String) value), i));
+                    } else {
+                        response.addResult(new BatchGetRowResponse.RowResult(tableName, (Row) value, new ConsumedCapacity(new CapacityUnit(1, 0)), i));
+                    }
+                }
+            }
+            return response;
+        });
+    }
+
+    /**
+     * 获取某个方法收到的请求（按收到的顺序）
+     * @param methodName    方法名
+     * @return
+     */
+    @SuppressWarnings("unchecked")     // 请求的类型由方法名决定
+    public <Q> List<Q> requests(String methodName) {
+        List<Object> list = requests.getOrDefault(methodName, Collections.emptyList());
+        synchronized (list) {
+            return new ArrayList<>((List<Q>) list);
+        }
+    }
+
+    /**
+     * 获取 batchWriteRow 收到的全部行变更（按收到的顺序）
+     * @return
+     */
+    public List<RowChange> sentRowChanges() {
+        List<RowChange> rowChanges = new ArrayList<>();
+        for (BatchWriteRowRequest request : this.<BatchWriteRowRequest>requests("batchWriteRow")) {
+            for (List<RowChange> list : request.getRowChange().values()) {
+                rowChanges.addAll(list);
+            }
+        }
+        return rowChanges;
+    }
+
+    /**
+     * 同步客户端（没有注册的方法抛出 UnsupportedOperationException）
+     * @return
+     */
+    public SyncClientInterface sync() {
+        return (SyncClientInterface) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{SyncClientInterface.class},
+                (proxy, method, args) -> handle(method, args == null ? null : args[0]));
+    }
+
+    /**
+     * 异步客户端（在调用线程执行处理函数，再调用回调）
+     * @return
+     */
+    @SuppressWarnings("unchecked")     // 回调的类型由方法名决定
+    public AsyncClientInterface async() {
+        return (AsyncClientInterface) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{AsyncClientInterface.class}, (proxy, method, args) -> {
+            TableStoreCallback<Object, Object> callback = (TableStoreCallback<Object, Object>) args[1];
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            Object response;
+            try {
+                response = handle(method, args[0]);
+            } catch (Exception e) {
+                callback.onFailed(args[0], e);
+                future.completeExceptionally(e);
+                return future;
+            }
+            callback.onCompleted(args[0], response);
+            future.complete(response);
+            return future;
+        });
+    }
+
+    private Object handle(Method method, Object request) {
+        Function<Object, Object> handler = handlers.get(method.getName());
+        if (handler == null) {
+            throw new UnsupportedOperationException(method.getName());
+        }
+        List<Object> list = requests.computeIfAbsent(method.getName(), name -> Collections.synchronizedList(new ArrayList<>()));
+        list.add(request);
+        return handler.apply(request);
+    }
+
+}
@@ -0,0 +1,108 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodec;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.Projection;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.utils.CommonUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link Projection} 的测试（不需要连接 ots）
+ */
+public class ProjectionTest {
+
+    private Row buildRow() {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("page_time", PrimaryKeyValue.fromString("2020-08-01"))
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L))
+                .build();
+        return new Row(primaryKey, new Column[]{
+                new Column("doctitle", ColumnValue.fromString("标题")),
+                new Column("dochtmlcon", ColumnValue.fromString("<html></html>"))
+        });
+    }
+
+    /**
+     * 测试默认投影排除 ignoreColumn 并且只构建一次
+     */
+    @Test
+    public void testDefaultProjection() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        Projection<Document> projection = codec.defaultProjection();
+        assertFalse(projection.isReturnAll());
+        assertFalse(projection.getColumns().contains("dochtmlcon"));
+        assertTrue(projection.getColumns().contains("doctitle"));
+        assertEquals(projection.getColumns(), projection.getColumnsToGet().getColumns());
+        assertSame(codec.exclude(Arrays.asList("dochtmlcon", "doctextcon")), codec.exclude(Arrays.asList("doctextcon", "dochtmlcon")));
+        assertEquals(projection.getColumns(), CommonUtils.getNoIgnoreColumns(Document.class));
+    }
+
+    /**
+     * 测试投影解码只写入投影内的字段（主键总是写入）
+     */
+    @Test
+    public void testDecode() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        Document document = codec.defaultProjection().decode(buildRow());
+        assertEquals("标题", document.getDoctitle());
+        assertNull(document.getDochtmlcon());
+        document = codec.include(Collections.singletonList("dochtmlcon")).decode(buildRow());
+        assertEquals(Long.valueOf(1L), document.getDocid());
+        assertNull(document.getDoctitle());
+        assertEquals("<html></html>", document.getDochtmlcon());
+    }
+
+    /**
+     * 测试查全部
+     */
+    @Test
+    public void testReturnAll() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        assertTrue(codec.include(null).isReturnAll());
+        assertTrue(codec.include(null).getColumnsToGet().isReturnAll());
+        assertSame(codec.include(null), codec.exclude(Collections.emptyList()));
+    }
+
+    /**
+     * 测试指定了不存在的列时直接报错（只要有一个写错就报错，不会退化成查全部）
+     */
+    @Test
+    public void testUnknownColumn() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        try {
+            codec.include(Arrays.asList("doctitle", "no_such_column"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("no_such_column"));
+        }
+        try {
+            codec.include(Collections.singletonList("no_such_column"));
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("no_such_column"));
+        }
+    }
+
+    /**
+     * 测试大字段投影合并到已有的对象
+     */
+    @Test
+    public void testMergeHeavy() {
+        EntityCodec<Document> codec = EntityCodecs.of(Document.class);
+        Projection<Document> heavy = codec.heavyProjection();
+        assertTrue(heavy.getColumns().contains("dochtmlcon"));
+        assertFalse(heavy.getColumns().contains("doctitle"));
+        Document document = codec.defaultProjection().decode(buildRow());
+        assertSame(document, heavy.merge(document, buildRow()));
+        assertEquals("标题", document.getDoctitle());
+        assertEquals("<html></html>", document.getDochtmlcon());
+    }
+
+}
@@ -0,0 +1,46 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.PrimaryKeyType;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.entity.TableMetadata;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.entity.bidi.enterprise.Enterprise;
+import site.dunhanson.aliyun.tablestore.utils.TableMetadataRegistry;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TableMetadataRegistry} 的测试（读取 tableStore.yaml，不需要连接 ots）
+ */
+public class TableMetadataRegistryTest {
+
+    @Test
+    public void testDocument() {
+        TableMetadata metadata = TableMetadataRegistry.get(Document.class);
+        assertSame(metadata, TableMetadataRegistry.get(Document.class));
+        assertEquals("document", metadata.getTableName());
+        assertEquals(2, metadata.getPrimaryKeys().size());
+        assertEquals("page_time", metadata.getPrimaryKeys().get(0).getName());
+        assertEquals(PrimaryKeyType.STRING, metadata.getPrimaryKeys().get(0).getType());
+        assertEquals("docid", metadata.getPrimaryKeys().get(1).getName());
+        assertEquals(PrimaryKeyType.INTEGER, metadata.getPrimaryKeys().get(1).getType());
+        assertEquals("document_index", metadata.getIndexNames().get(0));
+        assertTrue(metadata.getIgnoreColumns().contains("dochtmlcon"));
+        assertEquals(Integer.valueOf(30), metadata.getLimit());
+    }
+
+    @Test
+    public void testSecondaryIndex() {
+        TableMetadata metadata = TableMetadataRegistry.get(Enterprise.class);
+        assertEquals(1, metadata.getSecondaryIndexes().size());
+        assertEquals("enterprise_index2_name", metadata.getSecondaryIndexes().get(0).getIndexName());
+        assertEquals("name", metadata.getSecondaryIndexes().get(0).getColumn());
+        assertTrue(metadata.getIgnoreColumns().isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        TableMetadataRegistry.get(Document.class).getIgnoreColumns().add("doctitle");
+    }
+
+}
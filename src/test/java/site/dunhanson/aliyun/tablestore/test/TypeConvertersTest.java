@@ -0,0 +1,90 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.model.*;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.codec.EntityCodecs;
+import site.dunhanson.aliyun.tablestore.codec.TypeConverter;
+import site.dunhanson.aliyun.tablestore.codec.TypeConverters;
+import site.dunhanson.aliyun.tablestore.entity.TypedDoc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link TypeConverters} 的测试（不需要连接 ots）
+ */
+public class TypeConvertersTest {
+
+    static {
+        // 自定义转换器需要在实体类第一次使用前注册
+        TypeConverters.register(UUID.class, TypeConverters.of(value -> ColumnValue.fromString(value.toString()), value -> UUID.fromString(value.toString())));
+    }
+
+    /**
+     * 测试内置转换器的写入格式
+     */
+    @Test
+    public void testToColumnValue() {
+        LocalDateTime time = LocalDateTime.of(2020, 8, 1, 12, 30, 0);
+        Date date = Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+        assertEquals("2020-08-01 12:30:00", TypeConverters.find(Date.class).toColumnValue(date).asString());
+        assertEquals("2020-08-01 12:30:00", TypeConverters.find(LocalDateTime.class).toColumnValue(time).asString());
+        assertEquals("2020-08-01", TypeConverters.find(LocalDate.class).toColumnValue(time.toLocalDate()).asString());
+        assertEquals("100.50", TypeConverters.find(BigDecimal.class).toColumnValue(new BigDecimal("100.50")).asString());
+        assertEquals("PUBLISHED", TypeConverters.find(TypedDoc.Status.class).toColumnValue(TypedDoc.Status.PUBLISHED).asString());
+        ColumnValue binary = TypeConverters.find(byte[].class).toColumnValue(new byte[]{1, 2, 3});
+        assertEquals(ColumnType.BINARY, binary.getType());
+        assertEquals(Integer.valueOf(1), TypeConverters.find(int.class).fromColumnValue(1L));
+    }
+
+    /**
+     * 测试按字段类型解码
+     */
+    @Test
+    public void testDecode() {
+        UUID uuid = UUID.randomUUID();
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1L))
+                .build();
+        Row row = new Row(primaryKey, new Column[]{
+                new Column("create_time", ColumnValue.fromString("2020-08-01 12:30:00")),
+                new Column("update_time", ColumnValue.fromString("2020-08-01 12:30:00")),
+                new Column("page_date", ColumnValue.fromString("2020-08-01")),
+                new Column("price", ColumnValue.fromString("100.50")),
+                new Column("status", ColumnValue.fromString("DRAFT")),
+                new Column("content", ColumnValue.fromBinary("正文".getBytes(StandardCharsets.UTF_8))),
+                new Column("uuid", ColumnValue.fromString(uuid.toString()))
+        });
+        TypedDoc result = EntityCodecs.of(TypedDoc.class).decode(row);
+        LocalDateTime time = LocalDateTime.of(2020, 8, 1, 12, 30, 0);
+        assertEquals(Long.valueOf(1L), result.getDocid());
+        assertEquals(Date.from(time.atZone(ZoneId.systemDefault()).toInstant()), result.getCreateTime());
+        assertEquals(time, result.getUpdateTime());
+        assertEquals(time.toLocalDate(), result.getPageDate());
+        assertEquals(new BigDecimal("100.50"), result.getPrice());
+        assertEquals(TypedDoc.Status.DRAFT, result.getStatus());
+        assertEquals("正文", new String(result.getContent(), StandardCharsets.UTF_8));
+        assertEquals(uuid, result.getUuid());
+    }
+
+    /**
+     * 测试自定义转换器
+     */
+    @Test
+    public void testRegister() {
+        TypeConverter<Object> converter = TypeConverters.find(UUID.class);
+        assertNotNull(converter);
+        UUID uuid = UUID.randomUUID();
+        assertEquals(uuid.toString(), converter.toColumnValue(uuid).asString());
+        assertEquals(uuid, converter.fromColumnValue(uuid.toString()));
+        assertNull(TypeConverters.find(StringBuilder.class));
+    }
+
+}
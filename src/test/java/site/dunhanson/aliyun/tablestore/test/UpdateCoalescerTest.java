@@ -0,0 +1,205 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.core.utils.Pair;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.condition.SingleColumnValueCondition;
+import org.junit.Test;
+import site.dunhanson.aliyun.tablestore.entity.BatchResult;
+import site.dunhanson.aliyun.tablestore.entity.VersionedDoc;
+import site.dunhanson.aliyun.tablestore.entity.bidi.Document;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriter;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriterConfig;
+import site.dunhanson.aliyun.tablestore.writer.UpdateCoalescer;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link UpdateCoalescer} 的测试（使用假的客户端，不需要连接 ots）
+ */
+public class UpdateCoalescerTest {
+
+    private Document buildDocument(long docid) {
+        Document document = new Document();
+        document.setPageTime("2020-08-01");
+        document.setDocid(docid);
+        return document;
+    }
+
+    /**
+     * 测试同一主键的多次更新合并成一行，同一列后写的覆盖先写的
+     */
+    @Test
+    public void testCoalesce() {
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        CompletableFuture<BatchResult.RowStatus> first;
+        CompletableFuture<BatchResult.RowStatus> second;
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(client.sync(), 60000, 10000)) {
+            Document document = buildDocument(1);
+            document.setDoctitle("标题1");
+            first = coalescer.update(document);
+            document = buildDocument(1);
+            document.setDoctitle("标题2");
+            document.setCity("广州");
+            coalescer.update(document);
+            second = coalescer.update(buildDocument(2));
+            coalescer.flush();
+        }
+        List<RowChange> sent = client.sentRowChanges();
+        assertEquals(2, sent.size());
+        RowUpdateChange merged = (RowUpdateChange) sent.stream()
+                .filter(rowChange -> rowChange.getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong() == 1)
+                .findFirst().get();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < merged.getColumnsToUpdate().size(); i++) {
+            Column column = merged.getColumnsToUpdate().get(i).getFirst();
+            names.add(column.getName());
+            if ("doctitle".equals(column.getName())) {
+                assertEquals("标题2", column.getValue().asString());
+            }
+        }
+        assertEquals(1, Collections.frequency(names, "doctitle"));
+        assertTrue(names.contains("city"));
+        assertTrue(first.join().isSucceed());
+        assertEquals(2, second.join().getPrimaryKey().getPrimaryKeyColumn("docid").getValue().asLong());
+    }
+
+    /**
+     * 测试窗口结束后自动发送
+     */
+    @Test
+    public void testWindow() throws Exception {
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(client.sync(), 20, 10000)) {
+            BatchResult.RowStatus status = coalescer.update(buildDocument(1)).get();
+            assertTrue(status.isSucceed());
+        }
+        assertEquals(1, client.sentRowChanges().size());
+    }
+
+    /**
+     * 测试行数超过上限时由后台线程发送，不占用提交的线程
+     */
+    @Test
+    public void testMaxKeys() throws Exception {
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> {
+            threads.add(Thread.currentThread().getName());
+            return null;
+        });
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(client.sync(), 60000, 2)) {
+            coalescer.update(buildDocument(1));
+            BatchResult.RowStatus status = coalescer.update(buildDocument(2)).get(5, TimeUnit.SECONDS);
+            assertTrue(status.isSucceed());
+        }
+        assertEquals(2, threads.size());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("update-coalescer-")));
+    }
+
+    /**
+     * 测试带其他条件的更新不能合并（合并后条件会丢失）
+     */
+    @Test
+    public void testRejectCondition() {
+        PrimaryKey primaryKey = PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(1)).build();
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(new FakeClient().sync(), 60000, 10000)) {
+            RowUpdateChange notExist = new RowUpdateChange("document", primaryKey).put("doctitle", ColumnValue.fromString("标题"));
+            notExist.setCondition(new Condition(RowExistenceExpectation.EXPECT_NOT_EXIST));
+            try {
+                coalescer.submit(notExist);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("条件"));
+            }
+            RowUpdateChange columnCondition = new RowUpdateChange("document", primaryKey).put("doctitle", ColumnValue.fromString("标题"));
+            Condition condition = new Condition(RowExistenceExpectation.EXPECT_EXIST);
+            condition.setColumnCondition(new SingleColumnValueCondition("version", SingleColumnValueCondition.CompareOperator.EQUAL, ColumnValue.fromLong(1)));
+            columnCondition.setCondition(condition);
+            try {
+                coalescer.submit(columnCondition);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage().contains("条件"));
+            }
+        }
+    }
+
+    /**
+     * 测试有版本列的实体不能合并更新（合并后会跳过版本检查）
+     */
+    @Test
+    public void testRejectVersioned() {
+        FakeClient client = new FakeClient();
+        VersionedDoc doc = new VersionedDoc();
+        doc.setDocid(1L);
+        doc.setVersion(1);
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(client.sync(), 60000, 10000)) {
+            coalescer.update(doc);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("版本"));
+        }
+        try (BulkWriter writer = new BulkWriter(client.sync(), BulkWriterConfig.builder().build())) {
+            writer.update(doc);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("版本"));
+        }
+        assertTrue(client.requests("batchWriteRow").isEmpty());
+    }
+
+    /**
+     * 测试分块列的更新可以合并：旧块的删除和新块的写入按列覆盖，后写的生效
+     */
+    @Test
+    public void testChunkedColumn() {
+        site.dunhanson.aliyun.tablestore.entity.chunked.Document longDoc = new site.dunhanson.aliyun.tablestore.entity.chunked.Document();
+        longDoc.setPageTime("2020-08-01");
+        longDoc.setDocid(1L);
+        longDoc.setDochtmlcon(String.join("", Collections.nCopies(40, "a")));     // 拆成3块
+        site.dunhanson.aliyun.tablestore.entity.chunked.Document shortDoc = new site.dunhanson.aliyun.tablestore.entity.chunked.Document();
+        shortDoc.setPageTime("2020-08-01");
+        shortDoc.setDocid(1L);
+        shortDoc.setDochtmlcon("短");
+
+        // 1、先长后短：原列写入短值，旧块全部删除
+        Map<String, RowUpdateChange.Type> types = coalesce(longDoc, shortDoc);
+        assertEquals(RowUpdateChange.Type.PUT, types.get("dochtmlcon"));
+        for (int part = 1; part <= 4; part++) {
+            assertEquals(RowUpdateChange.Type.DELETE_ALL, types.get("dochtmlcon__part" + part));
+        }
+
+        // 2、先短后长：写入3块，只删除第4块
+        types = coalesce(shortDoc, longDoc);
+        for (int part = 1; part <= 3; part++) {
+            assertEquals(RowUpdateChange.Type.PUT, types.get("dochtmlcon__part" + part));
+        }
+        assertEquals(RowUpdateChange.Type.DELETE_ALL, types.get("dochtmlcon__part4"));
+    }
+
+    /**
+     * 同一窗口内依次更新，返回合并后每列的更新类型
+     */
+    private Map<String, RowUpdateChange.Type> coalesce(Object... entities) {
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        List<CompletableFuture<BatchResult.RowStatus>> futures = new ArrayList<>();
+        try (UpdateCoalescer coalescer = new UpdateCoalescer(client.sync(), 60000, 10000)) {
+            for (Object entity : entities) {
+                futures.add(coalescer.update(entity));
+            }
+        }
+        assertTrue(futures.stream().allMatch(future -> future.join().isSucceed()));
+        List<RowChange> sent = client.sentRowChanges();
+        assertEquals(1, sent.size());
+        Map<String, RowUpdateChange.Type> types = new HashMap<>();
+        for (Pair<Column, RowUpdateChange.Type> pair : ((RowUpdateChange) sent.get(0)).getColumnsToUpdate()) {
+            assertNull(types.put(pair.getFirst().getName(), pair.getSecond()));     // 每列只出现一次
+        }
+        return types;
+    }
+
+}
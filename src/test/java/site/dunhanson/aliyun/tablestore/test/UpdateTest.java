@@ -17,12 +17,15 @@ import site.dunhanson.aliyun.tablestore.entity.bidi.DocumentExtract;
 import site.dunhanson.aliyun.tablestore.entity.bidi.DocumentTemp;
 import site.dunhanson.aliyun.tablestore.entity.bidi.DocumentTempRealTime;
 import site.dunhanson.aliyun.tablestore.entity.bidi.enterprise.*;
+import site.dunhanson.aliyun.tablestore.utils.AsyncTableStoreUtils;
 import site.dunhanson.aliyun.tablestore.utils.TableStoreMultipleIndexUtils;
 import site.dunhanson.aliyun.tablestore.utils.TableStoreUtils;
 
 import java.lang.reflect.Field;
 import java.util.*;
 
+import static org.junit.Assert.assertEquals;
+
 @Slf4j
 public class UpdateTest {
 
@@ -62,6 +65,17 @@ public class UpdateTest {
         System.out.println(enterprise);
     }
 
+    /**
+     * 测试异步获取一行记录（和同步获取的结果一致）
+     */
+    @Test
+    public void testAsyncGet() throws Exception {
+        Enterprise enterprise = new Enterprise();
+        enterprise.setName("深圳市国际招标有限公司");
+        Enterprise async = AsyncTableStoreUtils.get(enterprise, Enterprise.class).get();
+        assertEquals(String.valueOf(TableStoreUtils.get(enterprise, Enterprise.class)), String.valueOf(async));
+    }
+
     /**
      * 根据二级索引查找
      */
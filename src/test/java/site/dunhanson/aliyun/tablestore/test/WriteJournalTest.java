@@ -0,0 +1,180 @@
+package site.dunhanson.aliyun.tablestore.test;
+
+import com.alicloud.openservices.tablestore.ClientException;
+import com.alicloud.openservices.tablestore.model.*;
+import com.alicloud.openservices.tablestore.model.condition.SingleColumnValueCondition;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriteException;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriter;
+import site.dunhanson.aliyun.tablestore.writer.BulkWriterConfig;
+import site.dunhanson.aliyun.tablestore.writer.WriteJournal;
+import site.dunhanson.aliyun.tablestore.writer.WriteResult;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.*;
+
+/**
+ * {@link WriteJournal} 的测试（使用临时目录和假的客户端，不需要连接 ots）
+ */
+public class WriteJournalTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private PrimaryKey primaryKey(long docid) {
+        return PrimaryKeyBuilder.createPrimaryKeyBuilder()
+                .addPrimaryKeyColumn("page_time", PrimaryKeyValue.fromString("2020-08-01"))
+                .addPrimaryKeyColumn("docid", PrimaryKeyValue.fromLong(docid))
+                .build();
+    }
+
+    /**
+     * 测试追加、确认和回放（没有确认的行下次打开时原样读出）
+     */
+    @Test
+    public void testRecover() throws Exception {
+        Path directory = folder.newFolder("journal").toPath();
+        WriteJournal journal = WriteJournal.open(directory, 1024, false);
+        RowPutChange put = new RowPutChange("document", primaryKey(1));
+        put.addColumn("doctitle", ColumnValue.fromString("标题"));
+        put.setCondition(new Condition(RowExistenceExpectation.EXPECT_NOT_EXIST));
+        RowUpdateChange update = new RowUpdateChange("document", primaryKey(2));
+        update.put("auditstatus", ColumnValue.fromLong(1));
+        update.increment(new Column("bid_number", ColumnValue.fromLong(3)));
+        update.deleteColumns("dochtmlcon");
+        WriteJournal.Entry entry = journal.append(put);
+        journal.append(update);
+        journal.append(new RowDeleteChange("document", primaryKey(3)));
+        journal.confirm(entry);
+        journal.close();
+
+        journal = WriteJournal.open(directory, 1024, false);
+        List<RowChange> recovered = journal.recover();
+        assertEquals(3, recovered.size());     // 同一分段还有没确认的行，整个分段保留
+        RowPutChange recoveredPut = (RowPutChange) recovered.get(0);
+        assertEquals(RowExistenceExpectation.EXPECT_NOT_EXIST, recoveredPut.getCondition().getRowExistenceExpectation());
+        assertEquals("标题", recoveredPut.getColumnsToPut().get(0).getValue().asString());
+        RowUpdateChange recoveredUpdate = (RowUpdateChange) recovered.get(1);
+        assertEquals(primaryKey(2), recoveredUpdate.getPrimaryKey());
+        assertEquals(3, recoveredUpdate.getColumnsToUpdate().size());
+        assertEquals(RowUpdateChange.Type.INCREMENT, recoveredUpdate.getColumnsToUpdate().get(1).getSecond());
+        assertEquals(RowUpdateChange.Type.DELETE_ALL, recoveredUpdate.getColumnsToUpdate().get(2).getSecond());
+        assertTrue(recovered.get(2) instanceof RowDeleteChange);
+        journal.deleteRecovered();
+        journal.close();
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    /**
+     * 测试全部确认的分段被删除
+     */
+    @Test
+    public void testDeleteConfirmedSegments() throws Exception {
+        Path directory = folder.newFolder("journal").toPath();
+        WriteJournal journal = WriteJournal.open(directory, 256, false);
+        List<WriteJournal.Entry> entries = new ArrayList<>();
+        for (long docid = 0; docid < 20; docid++) {
+            RowPutChange put = new RowPutChange("document", primaryKey(docid));
+            put.addColumn("doctitle", ColumnValue.fromString("标题" + docid));
+            entries.add(journal.append(put));
+        }
+        assertTrue(directory.toFile().list().length > 1);
+        for (WriteJournal.Entry entry : entries) {
+            journal.confirm(entry);
+        }
+        assertEquals(1, directory.toFile().list().length);     // 正在追加的分段
+        journal.close();
+        assertEquals(0, directory.toFile().list().length);
+    }
+
+    /**
+     * 测试进程在收到结果前崩溃时（日志里没有确认的行），BulkWriter 下次启动时回放
+     */
+    @Test
+    public void testBulkWriterReplay() throws Exception {
+        File directory = folder.newFolder("journal");
+        WriteJournal journal = WriteJournal.open(directory.toPath(), 1024, false);
+        journal.append(new RowDeleteChange("document", primaryKey(1)));
+        journal.append(new RowDeleteChange("document", primaryKey(2)));
+        journal.close();
+        assertEquals(1, directory.list().length);
+
+        BulkWriterConfig config = BulkWriterConfig.builder().journalDir(directory.getPath()).build();
+        FakeClient client = new FakeClient().onBatchWriteRow(rowChange -> null);
+        try (BulkWriter writer = new BulkWriter(client.sync(), config)) {
+            writer.flush();
+        }
+        List<RowChange> sent = client.sentRowChanges();
+        assertEquals(2, sent.size());
+        assertEquals(primaryKey(1), sent.get(0).getPrimaryKey());
+        assertEquals(0, directory.list().length);
+    }
+
+    /**
+     * 测试整个请求失败时每行都失败并确认日志（调用方看到的结果和日志一致，不会回放）
+     */
+    @Test
+    public void testBulkWriterRequestFailed() throws Exception {
+        File directory = folder.newFolder("journal");
+        BulkWriterConfig config = BulkWriterConfig.builder().journalDir(directory.getPath()).build();
+        FakeClient client = new FakeClient().on("batchWriteRow", request -> {
+            throw new ClientException("网络不可用");
+        });
+        CompletableFuture<WriteResult> future;
+        try (BulkWriter writer = new BulkWriter(client.sync(), config)) {
+            future = writer.submit(new RowDeleteChange("document", primaryKey(1)));
+        }
+        try {
+            future.join();
+            fail();
+        } catch (CompletionException e) {
+            assertEquals("ClientException", ((BulkWriteException) e.getCause()).getErrorCode());
+        }
+        assertEquals(1, client.requests("batchWriteRow").size());
+        assertEquals(0, directory.list().length);
+    }
+
+    /**
+     * 测试带列条件的行变更不能写入日志
+     */
+    @Test
+    public void testRejectColumnCondition() throws Exception {
+        BulkWriterConfig config = BulkWriterConfig.builder().journalDir(folder.newFolder("journal").getPath()).build();
+        RowUpdateChange update = new RowUpdateChange("document", primaryKey(1));
+        update.put("doctitle", ColumnValue.fromString("标题"));
+        Condition condition = new Condition(RowExistenceExpectation.EXPECT_EXIST);
+        condition.setColumnCondition(new SingleColumnValueCondition("version", SingleColumnValueCondition.CompareOperator.EQUAL, ColumnValue.fromLong(1)));
+        update.setCondition(condition);
+        try (BulkWriter writer = new BulkWriter(new FakeClient().sync(), config)) {
+            writer.submit(update);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("列条件"));
+        }
+    }
+
+    /**
+     * 测试自增不能写入日志（回放会重复计数）
+     */
+    @Test
+    public void testRejectIncrement() throws Exception {
+        BulkWriterConfig config = BulkWriterConfig.builder().journalDir(folder.newFolder("journal").getPath()).build();
+        RowUpdateChange update = new RowUpdateChange("document", primaryKey(1));
+        update.increment(new Column("bid_number", ColumnValue.fromLong(1)));
+        try (BulkWriter writer = new BulkWriter(new FakeClient().sync(), config)) {
+            writer.submit(update);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("自增"));
+        }
+    }
+
+}